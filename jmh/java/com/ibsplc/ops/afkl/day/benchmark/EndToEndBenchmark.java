@@ -0,0 +1,45 @@
+package com.ibsplc.ops.afkl.day.benchmark;
+
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent;
+import com.ibsplc.ops.afkl.day.events.SOFIByAFKLSqsConsumer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Full handleRequest, from the SQSEvent to the in-memory SQS stand-in, for a batch of alternating AF and KL
+ * records.
+ */
+@State(Scope.Benchmark)
+public class EndToEndBenchmark extends AbstractStageBenchmark {
+
+    @Param({"1", "10"})
+    public int batchSize;
+
+    private SOFIByAFKLSqsConsumer consumer;
+    private SQSEvent sqsEvent;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        consumer = PipelineFixture.newConsumer(new InMemorySqsClient());
+        String afMessage = PipelineFixture.loadSample(PipelineFixture.AF_SAMPLE);
+        String klMessage = PipelineFixture.loadSample(PipelineFixture.KL_SAMPLE);
+        List<String> messages = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            messages.add(i % 2 == 0 ? afMessage : klMessage);
+        }
+        sqsEvent = PipelineFixture.toSqsEvent(messages);
+    }
+
+    @Benchmark
+    public SQSBatchResponse handleRequest() {
+        return consumer.handleRequest(sqsEvent, null);
+    }
+}
@@ -0,0 +1,43 @@
+package com.ibsplc.ops.afkl.day.benchmark;
+
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageResponse;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous SQS stand-in completing every send at once, counting the outputs in the given {@link InMemorySqsClient}.
+ */
+public class InMemorySqsAsyncClient implements SqsAsyncClient {
+
+    private final InMemorySqsClient sqsClient;
+
+    public InMemorySqsAsyncClient(InMemorySqsClient sqsClient) {
+        super();
+        this.sqsClient = sqsClient;
+    }
+
+    @Override
+    public CompletableFuture<SendMessageResponse> sendMessage(SendMessageRequest sendMessageRequest) {
+        return CompletableFuture.completedFuture(sqsClient.sendMessage(sendMessageRequest));
+    }
+
+    @Override
+    public CompletableFuture<SendMessageBatchResponse> sendMessageBatch(
+            SendMessageBatchRequest sendMessageBatchRequest) {
+        return CompletableFuture.completedFuture(sqsClient.sendMessageBatch(sendMessageBatchRequest));
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+        sqsClient.close();
+    }
+}
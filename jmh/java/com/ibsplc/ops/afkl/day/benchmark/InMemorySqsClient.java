@@ -0,0 +1,72 @@
+package com.ibsplc.ops.afkl.day.benchmark;
+
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageResponse;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * SQS stand-in accepting every message and counting the outputs per queue url.
+ */
+public class InMemorySqsClient implements SqsClient {
+
+    private static final SdkHttpResponse OK = SdkHttpResponse.builder().statusCode(200).build();
+
+    private final Map<String, LongAdder> messagesPerQueue = new ConcurrentHashMap<>();
+
+    @Override
+    public SendMessageResponse sendMessage(SendMessageRequest sendMessageRequest) {
+        count(sendMessageRequest.queueUrl(), 1);
+        return (SendMessageResponse) SendMessageResponse.builder()
+                .messageId(UUID.randomUUID().toString())
+                .sdkHttpResponse(OK)
+                .build();
+    }
+
+    @Override
+    public SendMessageBatchResponse sendMessageBatch(SendMessageBatchRequest sendMessageBatchRequest) {
+        count(sendMessageBatchRequest.queueUrl(), sendMessageBatchRequest.entries().size());
+        return (SendMessageBatchResponse) SendMessageBatchResponse.builder()
+                .successful(sendMessageBatchRequest.entries().stream()
+                        .map(SendMessageBatchRequestEntry::id)
+                        .map(id -> SendMessageBatchResultEntry.builder()
+                                .id(id)
+                                .messageId(UUID.randomUUID().toString())
+                                .build())
+                        .collect(Collectors.toList()))
+                .sdkHttpResponse(OK)
+                .build();
+    }
+
+    /**
+     * @return number of messages received per queue url
+     */
+    public Map<String, Long> getMessagesPerQueue() {
+        return messagesPerQueue.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().sum()));
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+        messagesPerQueue.clear();
+    }
+
+    private void count(String queueUrl, int messages) {
+        messagesPerQueue.computeIfAbsent(queueUrl, url -> new LongAdder()).add(messages);
+    }
+}
@@ -0,0 +1,26 @@
+package com.ibsplc.ops.afkl.day.benchmark;
+
+import com.ibsplc.si.framework.messagehandler.SqsMessageOperationService;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageResponse;
+
+/**
+ * SqsMessageOperationService stand-in delegating to the {@link InMemorySqsClient}.
+ */
+public class InMemorySqsMessageOperationService extends SqsMessageOperationService {
+
+    private final InMemorySqsClient sqsClient;
+
+    public InMemorySqsMessageOperationService(InMemorySqsClient sqsClient) {
+        super();
+        this.sqsClient = sqsClient;
+    }
+
+    @Override
+    public SendMessageResponse sendMessage(String queueUrl, String message) {
+        return sqsClient.sendMessage(SendMessageRequest.builder()
+                .queueUrl(queueUrl)
+                .messageBody(message)
+                .build());
+    }
+}
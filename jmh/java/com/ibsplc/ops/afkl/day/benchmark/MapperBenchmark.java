@@ -0,0 +1,47 @@
+package com.ibsplc.ops.afkl.day.benchmark;
+
+import com.ibsplc.ops.afkl.day.mapper.CDMByKLMapper;
+import com.ibsplc.ops.afkl.day.mapper.FlightLegSnapshot;
+import com.ibsplc.ops.afkl.day.mapper.SOFIByAFMapper;
+import com.ibsplc.ops.afkl.day.mapper.SOFIByKLMapper;
+import com.ibsplc.si.event.schema.cdm.CDMFlightInfoType;
+import com.ibsplc.si.event.schema.flightleg.notification.IATAAIDXFlightLegNotifRQ;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Mapping stage, every mapper is run on both samples. The flight leg snapshot is extracted in each invocation, as
+ * the processors do.
+ */
+public class MapperBenchmark extends AbstractStageBenchmark {
+
+    @Benchmark
+    public FlightLegSnapshot snapshot(SampleState sample) {
+        return FlightLegSnapshot.of(sample.sendOperationalFlightInternalEvent);
+    }
+
+    @Benchmark
+    public IATAAIDXFlightLegNotifRQ mapAfAidx(SampleState sample) {
+        return SOFIByAFMapper.INSTANCE.mapToIATAAIDXFlightLegNotifRQ(
+                FlightLegSnapshot.of(sample.sendOperationalFlightInternalEvent), sample.soapHeader);
+    }
+
+    @Benchmark
+    public IATAAIDXFlightLegNotifRQ mapKlAidx(SampleState sample) {
+        return SOFIByKLMapper.INSTANCE.mapToIATAAIDXFlightLegNotifRQ(
+                FlightLegSnapshot.of(sample.sendOperationalFlightInternalEvent), sample.soapHeader);
+    }
+
+    @Benchmark
+    public CDMFlightInfoType mapKlCdm(SampleState sample) {
+        return CDMByKLMapper.INSTANCE.mapToCDMFlightInfoType(
+                FlightLegSnapshot.of(sample.sendOperationalFlightInternalEvent), PipelineFixture.CDM_RESULT);
+    }
+
+    @Benchmark
+    public void mapKlAidxAndCdm(SampleState sample, Blackhole blackhole) {
+        FlightLegSnapshot flightLegSnapshot = FlightLegSnapshot.of(sample.sendOperationalFlightInternalEvent);
+        blackhole.consume(SOFIByKLMapper.INSTANCE.mapToIATAAIDXFlightLegNotifRQ(flightLegSnapshot, sample.soapHeader));
+        blackhole.consume(CDMByKLMapper.INSTANCE.mapToCDMFlightInfoType(flightLegSnapshot, PipelineFixture.CDM_RESULT));
+    }
+}
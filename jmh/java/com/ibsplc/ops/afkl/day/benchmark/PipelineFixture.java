@@ -0,0 +1,302 @@
+package com.ibsplc.ops.afkl.day.benchmark;
+
+import com.amazonaws.services.lambda.runtime.events.SQSEvent;
+import com.ibsplc.ops.afkl.day.claimcheck.ClaimCheckService;
+import com.ibsplc.ops.afkl.day.dedup.MessageDeduplicator;
+import com.ibsplc.ops.afkl.day.dedup.OutputChangeDetector;
+import com.ibsplc.ops.afkl.day.enums.PayloadLogMode;
+import com.ibsplc.ops.afkl.day.events.SOFIByAFKLSqsConsumer;
+import com.ibsplc.ops.afkl.day.metrics.PipelineMetrics;
+import com.ibsplc.ops.afkl.day.prefilter.SofiPreFilter;
+import com.ibsplc.ops.afkl.day.processor.AirlineProcessorRegistry;
+import com.ibsplc.ops.afkl.day.processor.SOFIByAFProcessor;
+import com.ibsplc.ops.afkl.day.processor.SOFIByKLProcessor;
+import com.ibsplc.ops.afkl.day.publisher.SOFIByAFKLPublisher;
+import com.ibsplc.ops.afkl.day.service.CDMByKLServiceImpl;
+import com.ibsplc.ops.afkl.day.service.FlightLegMappingService;
+import com.ibsplc.ops.afkl.day.service.SOFIByAFServiceImpl;
+import com.ibsplc.ops.afkl.day.service.SOFIByKLServiceImpl;
+import com.ibsplc.ops.afkl.day.util.PayloadLogger;
+import com.ibsplc.ops.afkl.day.util.XmlParserUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Wires the SOFI pipeline by hand, outside of the CDI container, with an in-memory SQS stand-in.
+ *
+ * <p>Samples are read from the directory given by the {@code sofi.benchmark.samples.dir} system property, or from
+ * the {@code samples} folder of the classpath.
+ */
+public final class PipelineFixture {
+
+    public static final String AF_SAMPLE = "af-sofi.xml";
+    public static final String KL_SAMPLE = "kl-sofi.xml";
+    public static final String AF_AIDX_SQS_URL = "https://sqs.local/000000000000/sofi-aidx-af";
+    public static final String KL_AIDX_SQS_URL = "https://sqs.local/000000000000/sofi-aidx-kl";
+    public static final String KL_CDM_SQS_URL = "https://sqs.local/000000000000/sofi-cdm-kl";
+    public static final String CDM_RESULT = "ACCEPTED";
+
+    private static final String SAMPLES_DIR_PROPERTY = "sofi.benchmark.samples.dir";
+
+    private PipelineFixture() {
+        super();
+    }
+
+    /**
+     * Loads a captured SOFI SOAP message
+     *
+     * @param name file name of the sample
+     * @return the message
+     */
+    public static String loadSample(String name) {
+        String samplesDir = System.getProperty(SAMPLES_DIR_PROPERTY);
+        try {
+            if (samplesDir != null) {
+                return Files.readString(Paths.get(samplesDir, name), StandardCharsets.UTF_8);
+            }
+            try (InputStream inputStream = PipelineFixture.class.getClassLoader()
+                    .getResourceAsStream("samples/" + name)) {
+                if (inputStream == null) {
+                    throw new IllegalStateException("Sample not found: " + name);
+                }
+                return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Builds an SQSEvent with one record per message
+     *
+     * @param messages the record bodies
+     * @return the event
+     */
+    public static SQSEvent toSqsEvent(List<String> messages) {
+        List<SQSEvent.SQSMessage> records = new ArrayList<>(messages.size());
+        for (String message : messages) {
+            SQSEvent.SQSMessage sqsMessage = new SQSEvent.SQSMessage();
+            sqsMessage.setMessageId(UUID.randomUUID().toString());
+            sqsMessage.setBody(message);
+            records.add(sqsMessage);
+        }
+        SQSEvent sqsEvent = new SQSEvent();
+        sqsEvent.setRecords(records);
+        return sqsEvent;
+    }
+
+    /**
+     * Creates an XmlParserUtil outside of the CDI container
+     *
+     * @return the parser
+     */
+    public static XmlParserUtil newXmlParserUtil() {
+        return newInstance(XmlParserUtil.class);
+    }
+
+    /**
+     * Creates a consumer wired with the real processors, services and publisher, publishing to the given client
+     *
+     * @param sqsClient in-memory SQS stand-in
+     * @return the consumer
+     */
+    public static SOFIByAFKLSqsConsumer newConsumer(InMemorySqsClient sqsClient) {
+        return newConsumer(sqsClient, new SimpleMeterRegistry());
+    }
+
+    /**
+     * Creates a consumer wired with the real processors, services and publisher, publishing to the given client and
+     * recording the pipeline metrics in the given registry. The pre-filter and the batching are enabled, one record
+     * is transformed at a time and the records are not coalesced.
+     *
+     * @param sqsClient     in-memory SQS stand-in
+     * @param meterRegistry registry of the pipeline metrics
+     * @return the consumer
+     */
+    public static SOFIByAFKLSqsConsumer newConsumer(InMemorySqsClient sqsClient, MeterRegistry meterRegistry) {
+        PipelineSettings pipelineSettings = new PipelineSettings();
+        pipelineSettings.setPreFilterEnabled(true);
+        pipelineSettings.setBatchEnabled(true);
+        return newConsumer(sqsClient, meterRegistry, pipelineSettings);
+    }
+
+    /**
+     * Creates a consumer wired with the real processors, services and publisher, publishing to the given client,
+     * recording the pipeline metrics in the given registry and configured with the given settings
+     *
+     * @param sqsClient        in-memory SQS stand-in
+     * @param meterRegistry    registry of the pipeline metrics
+     * @param pipelineSettings parallelism, coalescing, pre-filter, batching and asynchronous sends
+     * @return the consumer
+     */
+    public static SOFIByAFKLSqsConsumer newConsumer(InMemorySqsClient sqsClient, MeterRegistry meterRegistry,
+                                                    PipelineSettings pipelineSettings) {
+        PipelineMetrics pipelineMetrics = newInstance(PipelineMetrics.class);
+        inject(pipelineMetrics, "meterRegistry", meterRegistry);
+        invoke(pipelineMetrics, "init");
+        OutputChangeDetector outputChangeDetector = newOutputChangeDetector();
+        PayloadLogger payloadLogger = newInstance(PayloadLogger.class);
+        inject(payloadLogger, "mode", PayloadLogMode.OFF);
+
+        ClaimCheckService claimCheckService = newInstance(ClaimCheckService.class);
+        inject(claimCheckService, "enabled", false);
+        invoke(claimCheckService, "init");
+
+        SOFIByAFKLPublisher publisher = newInstance(SOFIByAFKLPublisher.class);
+        inject(publisher, "pipelineMetrics", pipelineMetrics);
+        inject(publisher, "payloadLogger", payloadLogger);
+        inject(publisher, "claimCheckService", claimCheckService);
+        inject(publisher, "sqsMessageOperationService", new InMemorySqsMessageOperationService(sqsClient));
+        inject(publisher, "sqsClient", sqsClient);
+        inject(publisher, "sqsAsyncClient", new InMemorySqsAsyncClient(sqsClient));
+        inject(publisher, "batchEnabled", pipelineSettings.isBatchEnabled());
+        inject(publisher, "asyncEnabled", pipelineSettings.isAsyncEnabled());
+
+        FlightLegMappingService flightLegMappingService = newInstance(FlightLegMappingService.class);
+        inject(flightLegMappingService, "parallelMinLegs", 4);
+        inject(flightLegMappingService, "parallelism", 1);
+        invoke(flightLegMappingService, "init");
+
+        CDMByKLServiceImpl cdmByKLService = newInstance(CDMByKLServiceImpl.class);
+        inject(cdmByKLService, "result", CDM_RESULT);
+        inject(cdmByKLService, "flightLegMappingService", flightLegMappingService);
+        SOFIByAFServiceImpl sofiByAFService = newInstance(SOFIByAFServiceImpl.class);
+        inject(sofiByAFService, "flightLegMappingService", flightLegMappingService);
+        SOFIByKLServiceImpl sofiByKLService = newInstance(SOFIByKLServiceImpl.class);
+        inject(sofiByKLService, "flightLegMappingService", flightLegMappingService);
+
+        SOFIByAFProcessor sofiByAFProcessor = newInstance(SOFIByAFProcessor.class);
+        inject(sofiByAFProcessor, "afOutputSqsUrl", AF_AIDX_SQS_URL);
+        inject(sofiByAFProcessor, "sofiByAFKLService", sofiByAFService);
+        inject(sofiByAFProcessor, "sofiByAFKLPublisher", publisher);
+        inject(sofiByAFProcessor, "pipelineMetrics", pipelineMetrics);
+        inject(sofiByAFProcessor, "outputChangeDetector", outputChangeDetector);
+        inject(sofiByAFProcessor, "payloadLogger", payloadLogger);
+
+        SOFIByKLProcessor sofiByKLProcessor = newInstance(SOFIByKLProcessor.class);
+        inject(sofiByKLProcessor, "sofiAIDXOutputSqsURL", KL_AIDX_SQS_URL);
+        inject(sofiByKLProcessor, "sofiCDMOutputSqsURL", KL_CDM_SQS_URL);
+        inject(sofiByKLProcessor, "sofiByKLService", sofiByKLService);
+        inject(sofiByKLProcessor, "cdmByKLServiceImpl", cdmByKLService);
+        inject(sofiByKLProcessor, "sofiByAFKLPublisher", publisher);
+        inject(sofiByKLProcessor, "pipelineMetrics", pipelineMetrics);
+        inject(sofiByKLProcessor, "outputChangeDetector", outputChangeDetector);
+        inject(sofiByKLProcessor, "payloadLogger", payloadLogger);
+
+        AirlineProcessorRegistry airlineProcessorRegistry = newInstance(AirlineProcessorRegistry.class);
+        inject(airlineProcessorRegistry, "pipelineMetrics", pipelineMetrics);
+        airlineProcessorRegistry.register(sofiByAFProcessor, 0, 0);
+        airlineProcessorRegistry.register(sofiByKLProcessor, 0, 0);
+
+        SofiPreFilter sofiPreFilter = newInstance(SofiPreFilter.class);
+        inject(sofiPreFilter, "airlineProcessorRegistry", airlineProcessorRegistry);
+        inject(sofiPreFilter, "pipelineMetrics", pipelineMetrics);
+        inject(sofiPreFilter, "enabled", pipelineSettings.isPreFilterEnabled());
+
+        SOFIByAFKLSqsConsumer consumer = newInstance(SOFIByAFKLSqsConsumer.class);
+        inject(consumer, "airlineProcessorRegistry", airlineProcessorRegistry);
+        inject(consumer, "xmlParserUtil", newXmlParserUtil());
+        inject(consumer, "sofiByAFKLPublisher", publisher);
+        inject(consumer, "pipelineMetrics", pipelineMetrics);
+        inject(consumer, "outputChangeDetector", outputChangeDetector);
+        inject(consumer, "payloadLogger", payloadLogger);
+        inject(consumer, "sofiPreFilter", sofiPreFilter);
+        inject(consumer, "messageDeduplicator", newMessageDeduplicator());
+        inject(consumer, "timeoutMarginMillis", 0L);
+        inject(consumer, "parallelism", pipelineSettings.getParallelism());
+        inject(consumer, "coalescingEnabled", pipelineSettings.isCoalescingEnabled());
+        invoke(consumer, "init");
+        return consumer;
+    }
+
+    /**
+     * Creates an enabled pre-filter, with the AF and KL processors registered
+     *
+     * @return the pre-filter of a consumer created by {@link #newConsumer(InMemorySqsClient)}
+     */
+    public static SofiPreFilter newPreFilter() {
+        return (SofiPreFilter) read(newConsumer(new InMemorySqsClient()), "sofiPreFilter");
+    }
+
+    /**
+     * The benchmarks send the same samples over and over, so the deduplication is disabled
+     */
+    private static MessageDeduplicator newMessageDeduplicator() {
+        MessageDeduplicator messageDeduplicator = newInstance(MessageDeduplicator.class);
+        inject(messageDeduplicator, "enabled", false);
+        invoke(messageDeduplicator, "init");
+        return messageDeduplicator;
+    }
+
+    /**
+     * Same as the deduplication, the change detection would suppress all the outputs of the replayed samples
+     */
+    private static OutputChangeDetector newOutputChangeDetector() {
+        OutputChangeDetector outputChangeDetector = newInstance(OutputChangeDetector.class);
+        inject(outputChangeDetector, "enabled", false);
+        invoke(outputChangeDetector, "init");
+        return outputChangeDetector;
+    }
+
+    /**
+     * Sets a private field, the way the CDI container does for {@code @Inject} and {@code @ConfigProperty}
+     */
+    public static void inject(Object target, String fieldName, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException exception) {
+            throw new IllegalStateException("Unable to inject " + fieldName + " into " + target.getClass(), exception);
+        }
+    }
+
+    /**
+     * Reads a private field, such as a bean injected by {@link #inject(Object, String, Object)}
+     */
+    public static Object read(Object target, String fieldName) {
+        try {
+            Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            return field.get(target);
+        } catch (ReflectiveOperationException exception) {
+            throw new IllegalStateException("Unable to read " + fieldName + " of " + target.getClass(), exception);
+        }
+    }
+
+    /**
+     * Invokes a no-arg lifecycle method such as a {@code @PostConstruct} callback
+     */
+    public static void invoke(Object target, String methodName) {
+        try {
+            Method method = target.getClass().getDeclaredMethod(methodName);
+            method.setAccessible(true);
+            method.invoke(target);
+        } catch (ReflectiveOperationException exception) {
+            throw new IllegalStateException("Unable to invoke " + methodName + " on " + target.getClass(), exception);
+        }
+    }
+
+    private static <T> T newInstance(Class<T> type) {
+        try {
+            Constructor<T> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException exception) {
+            throw new IllegalStateException("Unable to create " + type, exception);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.ibsplc.ops.afkl.day.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Settings of the pipeline wired by {@link PipelineFixture}: the consumer parallelism and coalescing, the pre-filter,
+ * and the batching and asynchronous sends of the publisher.
+ */
+public final class PipelineSettings {
+
+    private static final String APPLICATION_PROPERTIES = "application.properties";
+    private static final Pattern EXPRESSION = Pattern.compile("\\$\\{([^:}]+):([^}]*)}");
+
+    private int parallelism = 1;
+    private boolean coalescingEnabled;
+    private boolean preFilterEnabled;
+    private boolean batchEnabled;
+    private boolean asyncEnabled;
+
+    /**
+     * Reads the settings from the application.properties of the classpath, as the service resolves them: the
+     * environment variable of an expression when it is set, its default value otherwise
+     *
+     * @return the settings of the service
+     */
+    public static PipelineSettings fromApplicationProperties() {
+        Properties properties = new Properties();
+        try (InputStream inputStream = PipelineSettings.class.getClassLoader()
+                .getResourceAsStream(APPLICATION_PROPERTIES)) {
+            if (inputStream == null) {
+                throw new IllegalStateException(APPLICATION_PROPERTIES + " not found on the classpath");
+            }
+            properties.load(inputStream);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        PipelineSettings pipelineSettings = new PipelineSettings();
+        pipelineSettings.setParallelism(Integer.parseInt(resolve(properties, "sofi.consumer.parallelism", "1")));
+        pipelineSettings.setCoalescingEnabled(
+                Boolean.parseBoolean(resolve(properties, "sofi.consumer.coalescing.enabled", "false")));
+        pipelineSettings.setPreFilterEnabled(
+                Boolean.parseBoolean(resolve(properties, "sofi.prefilter.enabled", "false")));
+        pipelineSettings.setBatchEnabled(
+                Boolean.parseBoolean(resolve(properties, "sofi.publisher.batch.enabled", "false")));
+        pipelineSettings.setAsyncEnabled(
+                Boolean.parseBoolean(resolve(properties, "sofi.publisher.async.enabled", "false")));
+        return pipelineSettings;
+    }
+
+    /**
+     * Resolves a property whose value is a literal or a {@code ${ENVIRONMENT_VARIABLE:default}} expression
+     */
+    private static String resolve(Properties properties, String name, String defaultValue) {
+        String value = properties.getProperty(name, defaultValue).trim();
+        Matcher matcher = EXPRESSION.matcher(value);
+        if (!matcher.matches()) {
+            return value;
+        }
+        String environmentValue = System.getenv(matcher.group(1));
+        return environmentValue != null ? environmentValue : matcher.group(2);
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public boolean isCoalescingEnabled() {
+        return coalescingEnabled;
+    }
+
+    public void setCoalescingEnabled(boolean coalescingEnabled) {
+        this.coalescingEnabled = coalescingEnabled;
+    }
+
+    public boolean isPreFilterEnabled() {
+        return preFilterEnabled;
+    }
+
+    public void setPreFilterEnabled(boolean preFilterEnabled) {
+        this.preFilterEnabled = preFilterEnabled;
+    }
+
+    public boolean isBatchEnabled() {
+        return batchEnabled;
+    }
+
+    public void setBatchEnabled(boolean batchEnabled) {
+        this.batchEnabled = batchEnabled;
+    }
+
+    public boolean isAsyncEnabled() {
+        return asyncEnabled;
+    }
+
+    public void setAsyncEnabled(boolean asyncEnabled) {
+        this.asyncEnabled = asyncEnabled;
+    }
+
+    @Override
+    public String toString() {
+        return "parallelism=" + parallelism + ", coalescing=" + coalescingEnabled + ", prefilter=" + preFilterEnabled
+                + ", batching=" + batchEnabled + ", async=" + asyncEnabled;
+    }
+}
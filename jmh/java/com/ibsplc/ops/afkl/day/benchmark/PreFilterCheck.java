@@ -0,0 +1,168 @@
+package com.ibsplc.ops.afkl.day.benchmark;
+
+import com.ibsplc.ops.afkl.day.enums.DropReason;
+import com.ibsplc.ops.afkl.day.prefilter.SofiMessageScanner;
+import com.ibsplc.ops.afkl.day.prefilter.SofiMessageSummary;
+import com.ibsplc.ops.afkl.day.prefilter.SofiPreFilter;
+
+import java.io.PrintStream;
+import java.util.Objects;
+
+/**
+ * Checks the decisions of the {@link SofiPreFilter} on the samples and on crafted messages: prefixed and upper-case
+ * element names, self-closing flight legs, comments and CDATA sections inside the legs, references in the airline
+ * code, legs with times but no resource, and messages the scanner cannot read.
+ *
+ * <p>Every case gives whether the {@link SofiMessageScanner} must read the whole message and why the message must be
+ * discarded, null when it must be processed. This is a diagnostic run by hand, not part of any build: it prints the
+ * decision of every case and exits with status 1 when one differs, see jmh/README.md.
+ */
+public final class PreFilterCheck {
+
+    private static final String ENVELOPE_START = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+            + "<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\""
+            + " xmlns:wsa=\"http://www.w3.org/2005/08/addressing\">"
+            + "<soapenv:Header><wsa:MessageID>uuid:prefilter-check</wsa:MessageID></soapenv:Header>"
+            + "<soapenv:Body>";
+    private static final String ENVELOPE_END = "</soapenv:Body></soapenv:Envelope>";
+    private static final String TIMES = "<times><scheduledDateTime>2024-05-14T09:05:00Z</scheduledDateTime></times>";
+    private static final String AIRPORTS = "<departure><airport><code>CDG</code></airport>" + TIMES + "</departure>"
+            + "<arrival><airport><code>AMS</code></airport></arrival>";
+
+    private PreFilterCheck() {
+        super();
+    }
+
+    public static void main(String[] args) {
+        int failures = run(PipelineFixture.newPreFilter(), System.out);
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs all the cases
+     *
+     * @param sofiPreFilter the pre-filter, with the AF and KL processors registered
+     * @param out           where the results are printed
+     * @return the number of failed cases
+     */
+    public static int run(SofiPreFilter sofiPreFilter, PrintStream out) {
+        Check check = new Check(sofiPreFilter, out);
+
+        check.expect("AF sample", PipelineFixture.loadSample(PipelineFixture.AF_SAMPLE), true, null);
+        check.expect("KL sample", PipelineFixture.loadSample(PipelineFixture.KL_SAMPLE), true, null);
+
+        check.expect("prefixed names", message("ns", "AF", "<flightleg>" + AIRPORTS + "</flightleg>"), true, null);
+        check.expect("prefixed names, unknown airline", message("ns", "XX", "<flightleg>" + AIRPORTS + "</flightleg>"),
+                true, DropReason.UNKNOWN_AIRLINE);
+        check.expect("prefixed names, no leg data", message("ns", "KL", "<flightleg><departure/></flightleg>"),
+                true, DropReason.NO_LEG_DATA);
+
+        check.expect("upper-case names", ENVELOPE_START
+                + "<SENDOPERATIONALFLIGHTINTERNALEVENT><OPERATIONALFLIGHT>"
+                + "<FLIGHTIDENTIFIER><AIRLINECODE>KL</AIRLINECODE></FLIGHTIDENTIFIER>"
+                + "<FLIGHTLEG><DEPARTURE><TIMES><SCHEDULEDDATETIME>2024-05-14T09:05:00Z</SCHEDULEDDATETIME></TIMES>"
+                + "</DEPARTURE></FLIGHTLEG>"
+                + "</OPERATIONALFLIGHT></SENDOPERATIONALFLIGHTINTERNALEVENT>" + ENVELOPE_END, true, null);
+        check.expect("upper-case names, unknown airline", ENVELOPE_START
+                + "<SENDOPERATIONALFLIGHTINTERNALEVENT><OPERATIONALFLIGHT>"
+                + "<FLIGHTIDENTIFIER><AIRLINECODE>XX</AIRLINECODE></FLIGHTIDENTIFIER>"
+                + "<FLIGHTLEG>" + AIRPORTS + "</FLIGHTLEG>"
+                + "</OPERATIONALFLIGHT></SENDOPERATIONALFLIGHTINTERNALEVENT>" + ENVELOPE_END,
+                true, DropReason.UNKNOWN_AIRLINE);
+
+        check.expect("self-closing flight leg", message(null, "AF", "<flightleg/>"), true, DropReason.NO_LEG_DATA);
+        check.expect("self-closing flight leg with a space", message(null, "AF", "<flightleg />"),
+                true, DropReason.NO_LEG_DATA);
+        check.expect("self-closing flight leg then a leg with times",
+                message(null, "AF", "<flightleg/><flightleg>" + AIRPORTS + "</flightleg>"), true, null);
+        check.expect("no flight leg", message(null, "KL", ""), true, DropReason.NO_FLIGHT_LEG);
+
+        check.expect("comment hiding the times of the leg",
+                message(null, "AF", "<flightleg><!-- " + TIMES + " --></flightleg>"), true, DropReason.NO_LEG_DATA);
+        check.expect("comment next to the times of the leg",
+                message(null, "AF", "<flightleg><!-- <gateCode>F22</gateCode> -->" + AIRPORTS + "</flightleg>"),
+                true, null);
+        check.expect("CDATA hiding a gate of the leg",
+                message(null, "KL", "<flightleg><remark><![CDATA[<gateCode>F22</gateCode>]]></remark></flightleg>"),
+                true, DropReason.NO_LEG_DATA);
+        check.expect("CDATA in a time of the leg", message(null, "KL",
+                        "<flightleg><times><scheduledDateTime><![CDATA[2024-05-14T09:05:00Z]]></scheduledDateTime>"
+                                + "</times></flightleg>"), true, null);
+
+        check.expect("character reference in the airline code",
+                message(null, "X&#88;", "<flightleg><departure/></flightleg>"), false, null);
+        check.expect("entity reference in the airline code",
+                message(null, "&amp;X", "<flightleg><departure/></flightleg>"), false, null);
+        check.expect("comment in the airline code",
+                message(null, "X<!-- -->X", "<flightleg><departure/></flightleg>"), false, null);
+
+        check.expect("AF legs with times but no gate nor parking position", message(null, "AF",
+                "<flightleg>" + AIRPORTS + "</flightleg><flightleg><arrival>" + TIMES + "</arrival></flightleg>"),
+                true, null);
+        check.expect("AF leg with a parking position but no time", message(null, "AF",
+                "<flightleg><arrival><parkingPosition><code>D7</code></parkingPosition></arrival></flightleg>"),
+                true, null);
+
+        String truncated = message(null, "XX", "<flightleg/>");
+        check.expect("truncated message", truncated.substring(0, truncated.length() - ENVELOPE_END.length() - 10),
+                false, null);
+        check.expect("DOCTYPE", message(null, "XX", "").replaceFirst("\\?>",
+                "?><!DOCTYPE Envelope [<!ENTITY airline \"XX\">]>"), false, null);
+
+        out.printf("%d cases, %d failed%n", check.cases, check.failures);
+        return check.failures;
+    }
+
+    /**
+     * Builds a SOFI SOAP message
+     *
+     * @param prefix      namespace prefix of the body elements, null for none
+     * @param airlineCode content of the airlineCode element
+     * @param flightLegs  the flightleg elements, without prefix
+     */
+    private static String message(String prefix, String airlineCode, String flightLegs) {
+        String body = "<SendOperationalFlightInternalEvent>"
+                + "<messageTimeStamp>2024-05-14T08:12:45.123Z</messageTimeStamp>"
+                + "<operationalFlight>"
+                + "<flightIdentifier><airlineCode>" + airlineCode + "</airlineCode>"
+                + "<flightNumber>1240</flightNumber></flightIdentifier>"
+                + flightLegs
+                + "</operationalFlight>"
+                + "</SendOperationalFlightInternalEvent>";
+        if (prefix != null) {
+            body = body.replaceAll("<(/?)(\\w)", "<$1" + prefix + ":$2")
+                    .replaceFirst("<" + prefix + ":SendOperationalFlightInternalEvent",
+                            "<" + prefix + ":SendOperationalFlightInternalEvent xmlns:" + prefix
+                                    + "=\"http://www.af-klm.com/services/flight\"");
+        }
+        return ENVELOPE_START + body + ENVELOPE_END;
+    }
+
+    private static final class Check {
+
+        private final SofiPreFilter sofiPreFilter;
+        private final PrintStream out;
+        private int cases;
+        private int failures;
+
+        private Check(SofiPreFilter sofiPreFilter, PrintStream out) {
+            super();
+            this.sofiPreFilter = sofiPreFilter;
+            this.out = out;
+        }
+
+        private void expect(String name, String message, boolean complete, DropReason dropReason) {
+            cases++;
+            SofiMessageSummary summary = SofiMessageScanner.scan(message);
+            DropReason actualDropReason = sofiPreFilter.check(message, name);
+            boolean passed = summary.isComplete() == complete && Objects.equals(actualDropReason, dropReason);
+            if (!passed) {
+                failures++;
+            }
+            out.printf("%-4s %-55s complete=%-5b dropped=%s%n", passed ? "OK" : "FAIL", name, summary.isComplete(),
+                    actualDropReason != null ? actualDropReason.getTag() : "no");
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.ibsplc.ops.afkl.day.benchmark;
+
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent;
+import com.ibsplc.ops.afkl.day.events.SOFIByAFKLSqsConsumer;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValuePercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Replays captured SOFI SOAP messages through the {@link SOFIByAFKLSqsConsumer}, fully offline, and reports the
+ * throughput, the latency percentiles of every stage and the outputs per queue url.
+ *
+ * <p>Usage: {@code ReplayHarness <directory|file> [--batch-size=10] [--rate=0] [--iterations=1] [--parallelism=n]
+ * [--coalescing=true|false] [--prefilter=true|false] [--batching=true|false] [--async=true|false]}. A directory holds
+ * one message per file, a file holds one message per line. The rate is in messages per second, 0 replays as fast as
+ * possible. The messages are sent in SQSEvents of the batch size, one invocation at a time like the Lambda runtime.
+ *
+ * <p>The pipeline settings default to the sofi.* properties of application.properties, as resolved by the service,
+ * so that the replay measures the production configuration unless an option overrides it.
+ */
+public final class ReplayHarness {
+
+    private static final String BATCH_SIZE_OPTION = "--batch-size=";
+    private static final String RATE_OPTION = "--rate=";
+    private static final String ITERATIONS_OPTION = "--iterations=";
+    private static final String PARALLELISM_OPTION = "--parallelism=";
+    private static final String COALESCING_OPTION = "--coalescing=";
+    private static final String PREFILTER_OPTION = "--prefilter=";
+    private static final String BATCHING_OPTION = "--batching=";
+    private static final String ASYNC_OPTION = "--async=";
+    private static final String USAGE = "Usage: ReplayHarness <directory|file> [--batch-size=10] [--rate=0]"
+            + " [--iterations=1] [--parallelism=n] [--coalescing=true|false] [--prefilter=true|false]"
+            + " [--batching=true|false] [--async=true|false]";
+    private static final String INVOCATION_TIMER = "sofi.replay.invocation";
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private ReplayHarness() {
+        super();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+        int batchSize = 10;
+        double rate = 0;
+        int iterations = 1;
+        PipelineSettings pipelineSettings = PipelineSettings.fromApplicationProperties();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].startsWith(BATCH_SIZE_OPTION)) {
+                batchSize = Integer.parseInt(args[i].substring(BATCH_SIZE_OPTION.length()));
+            } else if (args[i].startsWith(RATE_OPTION)) {
+                rate = Double.parseDouble(args[i].substring(RATE_OPTION.length()));
+            } else if (args[i].startsWith(ITERATIONS_OPTION)) {
+                iterations = Integer.parseInt(args[i].substring(ITERATIONS_OPTION.length()));
+            } else if (args[i].startsWith(PARALLELISM_OPTION)) {
+                pipelineSettings.setParallelism(Integer.parseInt(args[i].substring(PARALLELISM_OPTION.length())));
+            } else if (args[i].startsWith(COALESCING_OPTION)) {
+                pipelineSettings.setCoalescingEnabled(parseBoolean(args[i], COALESCING_OPTION));
+            } else if (args[i].startsWith(PREFILTER_OPTION)) {
+                pipelineSettings.setPreFilterEnabled(parseBoolean(args[i], PREFILTER_OPTION));
+            } else if (args[i].startsWith(BATCHING_OPTION)) {
+                pipelineSettings.setBatchEnabled(parseBoolean(args[i], BATCHING_OPTION));
+            } else if (args[i].startsWith(ASYNC_OPTION)) {
+                pipelineSettings.setAsyncEnabled(parseBoolean(args[i], ASYNC_OPTION));
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (batchSize < 1 || iterations < 1 || rate < 0 || pipelineSettings.getParallelism() < 1) {
+            throw new IllegalArgumentException(
+                    "The batch size, iterations and parallelism must be positive and the rate >= 0");
+        }
+        List<String> messages = loadMessages(Paths.get(args[0]));
+        if (messages.isEmpty()) {
+            throw new IllegalArgumentException("No message found in " + args[0]);
+        }
+        replay(messages, batchSize, rate, iterations, pipelineSettings, System.out);
+    }
+
+    /**
+     * Replays the messages and prints the report
+     *
+     * @param messages         the captured SOFI SOAP messages
+     * @param batchSize        number of records per SQSEvent
+     * @param rate             messages per second, 0 for no throttling
+     * @param iterations       number of times the messages are replayed
+     * @param pipelineSettings settings of the replayed pipeline
+     * @param out              where the report is printed
+     */
+    public static void replay(List<String> messages, int batchSize, double rate, int iterations,
+                              PipelineSettings pipelineSettings, PrintStream out) {
+        MeterRegistry meterRegistry = newMeterRegistry();
+        InMemorySqsClient sqsClient = new InMemorySqsClient();
+        SOFIByAFKLSqsConsumer consumer = PipelineFixture.newConsumer(sqsClient, meterRegistry, pipelineSettings);
+        Timer invocationTimer = Timer.builder(INVOCATION_TIMER).register(meterRegistry);
+
+        List<SQSEvent> sqsEvents = new ArrayList<>();
+        for (int from = 0; from < messages.size(); from += batchSize) {
+            sqsEvents.add(PipelineFixture.toSqsEvent(
+                    messages.subList(from, Math.min(from + batchSize, messages.size()))));
+        }
+        long failures = 0;
+        long records = 0;
+        long start = System.nanoTime();
+        long nextInvocation = start;
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            for (SQSEvent sqsEvent : sqsEvents) {
+                LockSupport.parkNanos(nextInvocation - System.nanoTime());
+                long invocationStart = System.nanoTime();
+                SQSBatchResponse sqsBatchResponse = consumer.handleRequest(sqsEvent, null);
+                invocationTimer.record(System.nanoTime() - invocationStart, TimeUnit.NANOSECONDS);
+                int eventRecords = sqsEvent.getRecords().size();
+                records += eventRecords;
+                failures += sqsBatchResponse.getBatchItemFailures().size();
+                if (rate > 0) {
+                    nextInvocation += (long) (eventRecords * TimeUnit.SECONDS.toNanos(1) / rate);
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+
+        out.printf("Pipeline settings: %s%n", pipelineSettings);
+        out.printf("Replayed %d records in %d invocations in %.3f s: %.1f records/s, %d failed%n",
+                records, (long) sqsEvents.size() * iterations, seconds, records / seconds, failures);
+        out.println();
+        out.printf("%-60s %10s %10s %10s %10s %10s%n", "latency (ms)", "count", "p50", "p95", "p99", "max");
+        meterRegistry.getMeters().stream()
+                .filter(Timer.class::isInstance)
+                .map(Timer.class::cast)
+                .filter(timer -> timer.count() > 0)
+                .sorted(Comparator.comparing(ReplayHarness::describe))
+                .forEach(timer -> printTimer(timer, out));
+        out.println();
+        out.printf("%-60s %10s%n", "outputs", "messages");
+        new TreeMap<>(sqsClient.getMessagesPerQueue()).forEach((queueUrl, count) ->
+                out.printf("%-60s %10d%n", queueUrl, count));
+    }
+
+    private static boolean parseBoolean(String arg, String option) {
+        String value = arg.substring(option.length());
+        if (!"true".equalsIgnoreCase(value) && !"false".equalsIgnoreCase(value)) {
+            throw new IllegalArgumentException("Expected true or false: " + arg);
+        }
+        return Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Loads the messages of a directory, one per file, or of a file, one per line
+     */
+    private static List<String> loadMessages(Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            return Files.readAllLines(path, StandardCharsets.UTF_8).stream()
+                    .filter(line -> !line.isBlank())
+                    .collect(Collectors.toList());
+        }
+        List<String> messages = new ArrayList<>();
+        try (Stream<Path> files = Files.list(path)) {
+            for (Path file : files.filter(Files::isRegularFile).sorted().collect(Collectors.toList())) {
+                messages.add(Files.readString(file, StandardCharsets.UTF_8));
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * The pipeline timers do not publish percentiles, this registry computes them for every timer over the whole run
+     */
+    private static MeterRegistry newMeterRegistry() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        meterRegistry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder()
+                        .percentiles(PERCENTILES)
+                        .expiry(Duration.ofDays(1))
+                        .bufferLength(1)
+                        .build()
+                        .merge(config);
+            }
+        });
+        return meterRegistry;
+    }
+
+    private static void printTimer(Timer timer, PrintStream out) {
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        Map<Double, Double> percentiles = new TreeMap<>();
+        for (ValuePercentile valuePercentile : snapshot.percentileValues()) {
+            percentiles.put(valuePercentile.percentile(), valuePercentile.value(TimeUnit.MILLISECONDS));
+        }
+        out.printf("%-60s %10d %10.3f %10.3f %10.3f %10.3f%n", describe(timer), snapshot.count(),
+                percentiles.getOrDefault(PERCENTILES[0], Double.NaN),
+                percentiles.getOrDefault(PERCENTILES[1], Double.NaN),
+                percentiles.getOrDefault(PERCENTILES[2], Double.NaN),
+                snapshot.max(TimeUnit.MILLISECONDS));
+    }
+
+    private static String describe(Timer timer) {
+        StringBuilder description = new StringBuilder(timer.getId().getName());
+        for (Tag tag : timer.getId().getTagsAsIterable()) {
+            description.append(' ').append(tag.getKey()).append('=').append(tag.getValue());
+        }
+        return description.toString();
+    }
+}
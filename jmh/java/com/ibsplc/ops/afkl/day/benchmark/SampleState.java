@@ -0,0 +1,67 @@
+package com.ibsplc.ops.afkl.day.benchmark;
+
+import com.ibsplc.ops.afkl.day.mapper.CDMByKLMapper;
+import com.ibsplc.ops.afkl.day.mapper.FlightLegSnapshot;
+import com.ibsplc.ops.afkl.day.mapper.SOFIByAFMapper;
+import com.ibsplc.ops.afkl.day.mapper.SOFIByKLMapper;
+import com.ibsplc.ops.afkl.day.util.XmlGenerationUtil;
+import com.ibsplc.ops.afkl.day.util.XmlParserUtil;
+import com.ibsplc.si.event.schema.cdm.CDMFlightInfoType;
+import com.ibsplc.si.event.schema.flightleg.notification.IATAAIDXFlightLegNotifRQ;
+import com.ibsplc.si.event.schema.sofi.SendOperationalFlightInternalEvent;
+import com.ibsplc.si.event.schema.sofi.SoapHeader;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.xml.bind.JAXBElement;
+import javax.xml.namespace.QName;
+
+import static com.ibsplc.ops.afkl.day.constants.CDMByKLConstants.CDM_FLIGHT_INFO;
+import static com.ibsplc.ops.afkl.day.constants.CDMByKLConstants.NAMESPACE_URI;
+import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.AF;
+import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.KL;
+
+/**
+ * Every intermediate form of a sample message, computed once per trial so that each benchmark only measures its
+ * own stage.
+ */
+@State(Scope.Benchmark)
+public class SampleState {
+
+    @Param({AF, KL})
+    public String airline;
+
+    public XmlParserUtil xmlParserUtil;
+    public String message;
+    public String body;
+    public String header;
+    public SendOperationalFlightInternalEvent sendOperationalFlightInternalEvent;
+    public SoapHeader soapHeader;
+    public FlightLegSnapshot flightLegSnapshot;
+    public IATAAIDXFlightLegNotifRQ iataAidxFlightLegNotifRQ;
+    public JAXBElement<CDMFlightInfoType> cdmFlightInfo;
+    public String aidxXml;
+    public String cdmXml;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        xmlParserUtil = PipelineFixture.newXmlParserUtil();
+        message = PipelineFixture.loadSample(AF.equals(airline) ? PipelineFixture.AF_SAMPLE : PipelineFixture.KL_SAMPLE);
+        body = xmlParserUtil.extractXmlPartsFromSoapMessage(message, true);
+        header = xmlParserUtil.extractXmlPartsFromSoapMessage(message, false);
+        sendOperationalFlightInternalEvent =
+                xmlParserUtil.parseXmlToObject(SendOperationalFlightInternalEvent.class, body);
+        soapHeader = xmlParserUtil.parseSoapHeaderFromXml(header);
+        flightLegSnapshot = FlightLegSnapshot.of(sendOperationalFlightInternalEvent);
+        iataAidxFlightLegNotifRQ = AF.equals(airline)
+                ? SOFIByAFMapper.INSTANCE.mapToIATAAIDXFlightLegNotifRQ(flightLegSnapshot, soapHeader)
+                : SOFIByKLMapper.INSTANCE.mapToIATAAIDXFlightLegNotifRQ(flightLegSnapshot, soapHeader);
+        aidxXml = XmlGenerationUtil.generateXmlFromObj(iataAidxFlightLegNotifRQ, IATAAIDXFlightLegNotifRQ.class);
+        cdmFlightInfo = new JAXBElement<>(new QName(NAMESPACE_URI, CDM_FLIGHT_INFO), CDMFlightInfoType.class,
+                CDMByKLMapper.INSTANCE.mapToCDMFlightInfoType(flightLegSnapshot, PipelineFixture.CDM_RESULT));
+        cdmXml = XmlGenerationUtil.generateXmlFromObj(cdmFlightInfo, CDMFlightInfoType.class);
+    }
+}
@@ -0,0 +1,19 @@
+package com.ibsplc.ops.afkl.day.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * SOAP envelope splitting stage.
+ */
+public class SoapEnvelopeBenchmark extends AbstractStageBenchmark {
+
+    @Benchmark
+    public String extractBody(SampleState sample) throws Exception {
+        return sample.xmlParserUtil.extractXmlPartsFromSoapMessage(sample.message, true);
+    }
+
+    @Benchmark
+    public String extractHeader(SampleState sample) throws Exception {
+        return sample.xmlParserUtil.extractXmlPartsFromSoapMessage(sample.message, false);
+    }
+}
@@ -0,0 +1,60 @@
+package com.ibsplc.ops.afkl.day.benchmark;
+
+import com.ibsplc.ops.afkl.day.enums.TimeFormat;
+import com.ibsplc.ops.afkl.day.util.DateTimeFormatUtil;
+import com.ibsplc.ops.afkl.day.util.TimeFormatMemo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static com.ibsplc.ops.afkl.day.constants.CDMByKLConstants.DATE_TIME_PATTERN_CDM;
+
+/**
+ * Formatting of one SOFI date, the way the mappers used to do it against the precompiled formatter and the memo.
+ * Run through {@link BenchmarkRunner} to get the allocation per formatted value.
+ */
+public class TimeFormatBenchmark extends AbstractStageBenchmark {
+
+    @State(Scope.Thread)
+    public static class TimeState {
+
+        public XMLGregorianCalendar date;
+        public long epochMillis;
+        public int offsetSeconds;
+        public TimeFormatMemo timeFormatMemo;
+
+        @Setup(Level.Trial)
+        public void setUp() throws DatatypeConfigurationException {
+            date = DatatypeFactory.newInstance().newXMLGregorianCalendar("2024-03-10T12:34:56.789+01:00");
+            LocalDateTime localDateTime = DateTimeFormatUtil.toLocalDateTime(date);
+            offsetSeconds = DateTimeFormatUtil.getOffsetSeconds(date, localDateTime);
+            epochMillis = date.toGregorianCalendar().getTimeInMillis();
+            timeFormatMemo = new TimeFormatMemo();
+            timeFormatMemo.format(epochMillis, offsetSeconds, TimeFormat.CDM_DATE);
+        }
+    }
+
+    @Benchmark
+    public String legacy(TimeState state) {
+        LocalDateTime localDateTime = state.date.toGregorianCalendar().toZonedDateTime().toLocalDateTime();
+        return localDateTime.format(DateTimeFormatter.ofPattern(DATE_TIME_PATTERN_CDM));
+    }
+
+    @Benchmark
+    public String precompiled(TimeState state) {
+        return DateTimeFormatUtil.format(state.date, TimeFormat.CDM_DATE);
+    }
+
+    @Benchmark
+    public String memoized(TimeState state) {
+        return state.timeFormatMemo.format(state.epochMillis, state.offsetSeconds, TimeFormat.CDM_DATE);
+    }
+}
@@ -0,0 +1,40 @@
+package com.ibsplc.ops.afkl.day.benchmark;
+
+import com.ibsplc.ops.afkl.day.util.ValidatedXml;
+import com.ibsplc.ops.afkl.day.util.XmlGenerationUtil;
+import com.ibsplc.si.event.schema.cdm.CDMFlightInfoType;
+import com.ibsplc.si.event.schema.flightleg.notification.IATAAIDXFlightLegNotifRQ;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import javax.xml.bind.JAXBException;
+
+import static com.ibsplc.ops.afkl.day.constants.CDMByKLConstants.CDM_FLIGHT_INFO_XSD;
+import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.IATA_AIDX_FLIGHTLEGNOTIFRQ_OUTPUT_XSD;
+
+/**
+ * Marshalling stage of both outputs, plain and validated against the output xsd while marshalling.
+ */
+public class XmlGenerationBenchmark extends AbstractStageBenchmark {
+
+    @Benchmark
+    public String generateAidx(SampleState sample) throws JAXBException {
+        return XmlGenerationUtil.generateXmlFromObj(sample.iataAidxFlightLegNotifRQ, IATAAIDXFlightLegNotifRQ.class);
+    }
+
+    @Benchmark
+    public String generateCdm(SampleState sample) throws JAXBException {
+        return XmlGenerationUtil.generateXmlFromObj(sample.cdmFlightInfo, CDMFlightInfoType.class);
+    }
+
+    @Benchmark
+    public ValidatedXml generateValidatedAidx(SampleState sample) throws JAXBException {
+        return XmlGenerationUtil.generateValidatedXmlFromObj(sample.iataAidxFlightLegNotifRQ,
+                IATAAIDXFlightLegNotifRQ.class, IATA_AIDX_FLIGHTLEGNOTIFRQ_OUTPUT_XSD);
+    }
+
+    @Benchmark
+    public ValidatedXml generateValidatedCdm(SampleState sample) throws JAXBException {
+        return XmlGenerationUtil.generateValidatedXmlFromObj(sample.cdmFlightInfo, CDMFlightInfoType.class,
+                CDM_FLIGHT_INFO_XSD);
+    }
+}
@@ -0,0 +1,27 @@
+package com.ibsplc.ops.afkl.day.benchmark;
+
+import com.ibsplc.ops.afkl.day.util.InboundSofiMessage;
+import com.ibsplc.si.event.schema.sofi.SendOperationalFlightInternalEvent;
+import com.ibsplc.si.event.schema.sofi.SoapHeader;
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Object binding stage, alone and combined with the envelope splitting and the validation.
+ */
+public class XmlParserBenchmark extends AbstractStageBenchmark {
+
+    @Benchmark
+    public SendOperationalFlightInternalEvent parseBody(SampleState sample) {
+        return sample.xmlParserUtil.parseXmlToObject(SendOperationalFlightInternalEvent.class, sample.body);
+    }
+
+    @Benchmark
+    public SoapHeader parseHeader(SampleState sample) {
+        return sample.xmlParserUtil.parseSoapHeaderFromXml(sample.header);
+    }
+
+    @Benchmark
+    public InboundSofiMessage parseInboundMessage(SampleState sample) throws Exception {
+        return sample.xmlParserUtil.parseInboundSofiMessage(sample.message);
+    }
+}
@@ -0,0 +1,48 @@
+package com.ibsplc.ops.afkl.day.benchmark;
+
+import com.ibsplc.ops.afkl.day.util.XsdSchemaRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.xml.sax.SAXException;
+
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Validator;
+import java.io.IOException;
+import java.io.StringReader;
+
+import static com.ibsplc.ops.afkl.day.constants.CDMByKLConstants.CDM_FLIGHT_INFO_XSD;
+import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.IATA_AIDX_FLIGHTLEGNOTIFRQ_OUTPUT_XSD;
+import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.SOFI_XSD;
+
+/**
+ * XSD validation stage, for the input and both outputs, measured on its own. The pipeline validates the input while it
+ * binds it and the outputs while it marshals them.
+ */
+public class XsdValidationBenchmark extends AbstractStageBenchmark {
+
+    @Benchmark
+    public boolean validateSofi(SampleState sample) {
+        return validate(sample.body, SOFI_XSD);
+    }
+
+    @Benchmark
+    public boolean validateAidx(SampleState sample) {
+        return validate(sample.aidxXml, IATA_AIDX_FLIGHTLEGNOTIFRQ_OUTPUT_XSD);
+    }
+
+    @Benchmark
+    public boolean validateCdm(SampleState sample) {
+        return validate(sample.cdmXml, CDM_FLIGHT_INFO_XSD);
+    }
+
+    private static boolean validate(String xml, String xsd) {
+        Validator validator = XsdSchemaRegistry.acquire(xsd);
+        try {
+            validator.validate(new StreamSource(new StringReader(xml)));
+            return true;
+        } catch (SAXException | IOException exception) {
+            return false;
+        } finally {
+            XsdSchemaRegistry.release(xsd, validator);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.ibsplc.ops.afkl.day.claimcheck;
+
+import com.ibsplc.ops.afkl.day.metrics.PipelineMetrics;
+import io.quarkus.runtime.Startup;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Claim check of the oversized output messages.
+ *
+ * <p>When enabled, an output message larger than sofi.claimcheck.threshold.bytes is stored in the
+ * {@link PayloadStore} and replaced by a small reference message giving its location, type, size and SHA-256, so
+ * that the consumers can fetch it and check its integrity. The SQS requests stay small and more messages fit in a
+ * batch.
+ *
+ * <p>The reference message is defined by ClaimCheck.xsd, in the namespace {@value #CLAIM_CHECK_NAMESPACE}:
+ * <pre>
+ * &lt;ClaimCheck xmlns="urn:ibsplc:ops:afkl:day:claimcheck:1"&gt;
+ *     &lt;MessageType&gt;KL AIDX&lt;/MessageType&gt;
+ *     &lt;Location&gt;s3://sofi-claim-check/KL-AIDX/2b0c...e1.xml&lt;/Location&gt;
+ *     &lt;Size&gt;70412&lt;/Size&gt;
+ *     &lt;SHA256&gt;9f86...0a08&lt;/SHA256&gt;
+ * &lt;/ClaimCheck&gt;
+ * </pre>
+ * MessageType is the type of the stored output (AF AIDX, KL AIDX, KL CDM), Location the URI of the UTF-8 payload,
+ * Size its length in bytes and SHA256 the lower-case hex digest of its bytes. A consumer recognises a claim check by
+ * the namespace of its root element, fetches the payload and checks its size and digest before processing it.
+ *
+ * <p>The bean is created at startup, so that a payload store that cannot be used fails the deployment rather than
+ * the first oversized message.
+ */
+@Slf4j
+@Startup
+@ApplicationScoped
+@SuppressWarnings("unused")
+public class ClaimCheckService {
+
+    public static final String CLAIM_CHECK_NAMESPACE = "urn:ibsplc:ops:afkl:day:claimcheck:1";
+    private static final String SHA_256 = "SHA-256";
+    private static final String PAYLOAD_EXTENSION = ".xml";
+    /**
+     * A character is at most 3 UTF-8 bytes, a supplementary character is 2 characters for 4 bytes
+     */
+    private static final int MAX_BYTES_PER_CHAR = 3;
+
+    @Inject
+    private Instance<PayloadStore> payloadStores;
+
+    @Inject
+    private PipelineMetrics pipelineMetrics;
+
+    @ConfigProperty(name = "sofi.claimcheck.enabled", defaultValue = "false")
+    private boolean enabled;
+
+    @ConfigProperty(name = "sofi.claimcheck.threshold.bytes", defaultValue = "65536")
+    private int thresholdBytes;
+
+    private PayloadStore payloadStore;
+
+    @PostConstruct
+    void init() {
+        if (enabled) {
+            payloadStore = payloadStores.get();
+        }
+    }
+
+    /**
+     * Stores the message if it is above the threshold
+     *
+     * @param message     output xml
+     * @param messageType messageType
+     * @return the message itself, or the reference message when it was stored
+     */
+    public String checkIn(String message, String messageType) {
+        if (!enabled || (long) message.length() * MAX_BYTES_PER_CHAR <= thresholdBytes) {
+            return message;
+        }
+        byte[] payload = message.getBytes(StandardCharsets.UTF_8);
+        if (payload.length <= thresholdBytes) {
+            return message;
+        }
+        String key = messageType.replace(' ', '-') + "/" + UUID.randomUUID() + PAYLOAD_EXTENSION;
+        String location = payloadStore.put(key, payload);
+        pipelineMetrics.incrementClaimCheck(messageType);
+        log.info(" {} message of {} bytes stored at {}, publishing its claim check", messageType, payload.length,
+                location);
+        return "<ClaimCheck xmlns=\"" + CLAIM_CHECK_NAMESPACE + "\">"
+                + "<MessageType>" + messageType + "</MessageType>"
+                + "<Location>" + location + "</Location>"
+                + "<Size>" + payload.length + "</Size>"
+                + "<SHA256>" + sha256(payload) + "</SHA256>"
+                + "</ClaimCheck>";
+    }
+
+    private static String sha256(byte[] payload) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance(SHA_256).digest(payload));
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.ibsplc.ops.afkl.day.claimcheck;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Payload store writing to a directory of the local file system. It needs no infrastructure and is the one used for
+ * local runs and offline tests; its file: locations cannot be resolved by the consumers of a deployed service.
+ *
+ * <p>A payload is first written to a temporary file and then moved in place, so that a reader never sees a partial
+ * payload.
+ *
+ * <p>Created by the {@link PayloadStoreProducer} only in the dev and test launch modes.
+ */
+public class FileSystemPayloadStore implements PayloadStore {
+
+    private final String directory;
+
+    FileSystemPayloadStore(String directory) {
+        super();
+        this.directory = directory;
+    }
+
+    @Override
+    public String put(String key, byte[] payload) {
+        Path target = Paths.get(directory).resolve(key).normalize();
+        try {
+            Files.createDirectories(target.getParent());
+            Path temporary = Files.createTempFile(target.getParent(), null, null);
+            Files.write(temporary, payload);
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return target.toUri().toString();
+    }
+}
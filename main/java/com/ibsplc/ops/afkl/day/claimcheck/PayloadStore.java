@@ -0,0 +1,20 @@
+package com.ibsplc.ops.afkl.day.claimcheck;
+
+/**
+ * Object store holding the output payloads too large to be published to SQS, which are then published as a claim
+ * check referencing their location.
+ *
+ * <p>The {@link S3PayloadStore} is used unless sofi.claimcheck.store selects the local {@link FileSystemPayloadStore},
+ * see {@link PayloadStoreProducer}.
+ */
+public interface PayloadStore {
+
+    /**
+     * Stores the payload
+     *
+     * @param key     unique key of the payload
+     * @param payload the payload
+     * @return location of the stored payload, as an URI the consumers of the claim check can resolve
+     */
+    String put(String key, byte[] payload);
+}
@@ -0,0 +1,55 @@
+package com.ibsplc.ops.afkl.day.claimcheck;
+
+import io.quarkus.runtime.LaunchMode;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import software.amazon.awssdk.services.s3.S3Client;
+
+/**
+ * Produces the {@link PayloadStore} selected by sofi.claimcheck.store.
+ *
+ * <p>The S3Client is only looked up when the s3 store is selected, so the quarkus-amazon-s3 extension is only
+ * required by the deployments using that store. The local store writes to the file system of the instance, which
+ * the consumers of the claim checks cannot read: it is refused outside the dev and test launch modes.
+ */
+@Slf4j
+@ApplicationScoped
+@SuppressWarnings("unused")
+public class PayloadStoreProducer {
+
+    private static final String S3 = "s3";
+
+    @Inject
+    private Instance<S3Client> s3Clients;
+
+    @ConfigProperty(name = "sofi.claimcheck.store", defaultValue = S3)
+    private String store;
+
+    @ConfigProperty(name = "sofi.claimcheck.fs.directory", defaultValue = "/tmp/sofi-claim-check")
+    private String directory;
+
+    @ConfigProperty(name = "sofi.claimcheck.s3.bucket", defaultValue = "sofi-claim-check")
+    private String bucketName;
+
+    @Produces
+    @ApplicationScoped
+    PayloadStore payloadStore() {
+        if (!S3.equals(store)) {
+            if (!LaunchMode.current().isDevOrTest()) {
+                throw new IllegalStateException("sofi.claimcheck.store=" + store
+                        + " writes the payloads to the local file system, use sofi.claimcheck.store=s3");
+            }
+            log.info(" Using the file system payload store in {}", directory);
+            return new FileSystemPayloadStore(directory);
+        }
+        if (!s3Clients.isResolvable()) {
+            throw new IllegalStateException("sofi.claimcheck.store=s3 requires the quarkus-amazon-s3 extension");
+        }
+        log.info(" Using the S3 payload store on the bucket {}", bucketName);
+        return new S3PayloadStore(s3Clients.get(), bucketName);
+    }
+}
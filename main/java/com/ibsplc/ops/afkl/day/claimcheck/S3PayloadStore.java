@@ -0,0 +1,39 @@
+package com.ibsplc.ops.afkl.day.claimcheck;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+/**
+ * Payload store backed by an S3 bucket readable by the consumers of the output queues.
+ *
+ * <p>The payloads are not deleted by the pipeline, a lifecycle rule of the bucket should expire them once the
+ * consumers are done with them.
+ *
+ * <p>Created by the {@link PayloadStoreProducer} when sofi.claimcheck.store is s3, the default.
+ */
+public class S3PayloadStore implements PayloadStore {
+
+    private static final String CONTENT_TYPE = "application/xml";
+
+    private final S3Client s3Client;
+
+    private final String bucketName;
+
+    S3PayloadStore(S3Client s3Client, String bucketName) {
+        super();
+        this.s3Client = s3Client;
+        this.bucketName = bucketName;
+    }
+
+    @Override
+    public String put(String key, byte[] payload) {
+        s3Client.putObject(PutObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .contentType(CONTENT_TYPE)
+                        .build(),
+                RequestBody.fromBytes(payload));
+        return "s3://" + bucketName + "/" + key;
+    }
+}
@@ -0,0 +1,44 @@
+package com.ibsplc.ops.afkl.day.config;
+
+import com.ibsplc.si.event.schema.cdm.CDMFlightInfoType;
+import com.ibsplc.si.event.schema.flightleg.notification.IATAAIDXFlightLegNotifRQ;
+import com.ibsplc.si.event.schema.sofi.SendOperationalFlightInternalEvent;
+import com.ibsplc.si.event.schema.sofi.SoapHeader;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * Registers for reflection in the native image the classes only reached through reflection or service lookup:
+ * <ul>
+ *     <li>the SOFI input model, bound by Jackson XML, and the AIDX and CDM output models, bound by JAXB, with all
+ *     the classes of their fields</li>
+ *     <li>the JAXB object factories</li>
+ *     <li>the MapStruct implementations loaded by Mappers.getMapper</li>
+ * </ul>
+ *
+ * <p>The XSDs are included as resources. Only the constants and the mappers are initialised at build time, the XML
+ * infrastructure is initialised at startup by XmlInfrastructureInitializer. See the quarkus.native properties of
+ * application.properties, and main/docker/README.md for the smoke run of the native binary.
+ */
+@RegisterForReflection(
+        targets = {
+                SendOperationalFlightInternalEvent.class,
+                SoapHeader.class,
+                IATAAIDXFlightLegNotifRQ.class,
+                CDMFlightInfoType.class
+        },
+        classNames = {
+                "com.ibsplc.si.event.schema.sofi.ObjectFactory",
+                "com.ibsplc.si.event.schema.flightleg.notification.ObjectFactory",
+                "com.ibsplc.si.event.schema.cdm.ObjectFactory",
+                "com.ibsplc.ops.afkl.day.mapper.SOFIByAFMapperImpl",
+                "com.ibsplc.ops.afkl.day.mapper.SOFIByKLMapperImpl",
+                "com.ibsplc.ops.afkl.day.mapper.CDMByKLMapperImpl"
+        },
+        registerFullHierarchy = true
+)
+public final class NativeImageConfiguration {
+
+    private NativeImageConfiguration() {
+        super();
+    }
+}
@@ -23,12 +23,21 @@ public final class SOFIByAFKLConstants {
     public static final String AMS = "AMS";
     public static final String AF = "AF";
     public static final String KL = "KL";
+    public static final String AF_AIDX = "AF AIDX";
+    public static final String KL_AIDX = "KL AIDX";
+    public static final String KL_CDM = "KL CDM";
     public static final String RUNWAY = "Runway";
     public static final String OPERATION_TIME_CODE_CONTEXT = "9750";
     public static final String OPERATION_TIME_DATE_TIME_FORMAT = "yyyy-MM-dd'T'HH:mm:ss'Z'";
     public static final String REPEAT_INDEX = "1";
     public static final String DEPARTURE = "Departure";
     public static final char NEW_LINE = '\n';
+    public static final int VALIDATOR_POOL_SIZE = 8;
+    public static final int SQS_MAX_BATCH_ENTRIES = 10;
+    public static final int SQS_MAX_BATCH_PAYLOAD_BYTES = 256 * 1024;
+    public static final int OUTPUT_BUFFER_SIZE = 16 * 1024;
+    public static final int OUTPUT_BUFFER_MAX_RETAINED_SIZE = 1024 * 1024;
+    public static final int INPUT_VALIDATION_TIMING_SAMPLE_RATE = 16;
 
     private SOFIByAFKLConstants() {
         super();
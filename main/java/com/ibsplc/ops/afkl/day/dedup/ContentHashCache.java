@@ -0,0 +1,66 @@
+package com.ibsplc.ops.afkl.day.dedup;
+
+/**
+ * Bounded map of 64-bit key hashes to 64-bit content hashes, kept in primitive arrays.
+ *
+ * <p>The map is an open-addressing table probed over a small window. When the window of a new key is full, the entry
+ * used least recently is evicted.
+ */
+final class ContentHashCache {
+
+    private static final int MAX_PROBES = 8;
+
+    private final long[] keys;
+    private final long[] values;
+    private final long[] lastUses;
+    private final int mask;
+    private long clock;
+
+    ContentHashCache(int maxEntries) {
+        int capacity = Integer.highestOneBit(Math.max(MAX_PROBES, maxEntries) * 2 - 1);
+        keys = new long[capacity];
+        values = new long[capacity];
+        lastUses = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Stores the value of the key
+     *
+     * @return true if the key was already mapped to the same value
+     */
+    synchronized boolean put(long key, long value) {
+        int start = slot(key);
+        int index = -1;
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int candidate = (start + probe) & mask;
+            if (lastUses[candidate] != 0L && keys[candidate] == key) {
+                index = candidate;
+                break;
+            }
+            if (index < 0 || lastUses[candidate] < lastUses[index]) {
+                index = candidate;
+            }
+        }
+        boolean unchanged = lastUses[index] != 0L && keys[index] == key && values[index] == value;
+        keys[index] = key;
+        values[index] = value;
+        lastUses[index] = ++clock;
+        return unchanged;
+    }
+
+    synchronized void remove(long key) {
+        int start = slot(key);
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int index = (start + probe) & mask;
+            if (lastUses[index] != 0L && keys[index] == key) {
+                lastUses[index] = 0L;
+                return;
+            }
+        }
+    }
+
+    private int slot(long key) {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,40 @@
+package com.ibsplc.ops.afkl.day.dedup;
+
+import com.ibsplc.ops.afkl.day.enums.ClaimStatus;
+
+/**
+ * Backend recording the message ids being processed and already processed, shared by all the instances using it.
+ *
+ * <p>A message id is first leased for a short time while its record is processed, then marked done for the
+ * deduplication TTL once its outputs are published. A lease left behind by a crashed or timed out invocation
+ * expires on its own, so that the redelivery of the record is processed.
+ *
+ * <p>The store is created by the {@link DeduplicationStoreProducer}: the local {@link InMemoryDeduplicationStore}
+ * unless sofi.dedup.store selects another one.
+ */
+public interface DeduplicationStore {
+
+    /**
+     * Leases the message id if it has neither an unexpired lease nor an unexpired done record
+     *
+     * @param messageId            the normalised message id
+     * @param leaseExpiresAtMillis epoch millis after which the lease can be taken over
+     * @return CLAIMED if the lease was taken by this call, IN_PROGRESS or DONE otherwise
+     */
+    ClaimStatus acquire(String messageId, long leaseExpiresAtMillis);
+
+    /**
+     * Marks the message id as processed, replacing its lease
+     *
+     * @param messageId       the normalised message id
+     * @param expiresAtMillis epoch millis after which the record can be forgotten
+     */
+    void complete(String messageId, long expiresAtMillis);
+
+    /**
+     * Releases the lease of the message id, so that it can be processed again. A done record is kept.
+     *
+     * @param messageId the normalised message id
+     */
+    void remove(String messageId);
+}
@@ -0,0 +1,51 @@
+package com.ibsplc.ops.afkl.day.dedup;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+/**
+ * Produces the {@link DeduplicationStore} selected by sofi.dedup.store.
+ *
+ * <p>The DynamoDbClient is only looked up when the dynamodb store is selected, so the quarkus-amazon-dynamodb
+ * extension is only required by the deployments using that store; the others only need the DynamoDB SDK classes
+ * to compile.
+ */
+@Slf4j
+@ApplicationScoped
+@SuppressWarnings("unused")
+public class DeduplicationStoreProducer {
+
+    private static final String DYNAMODB = "dynamodb";
+
+    @Inject
+    private Instance<DynamoDbClient> dynamoDbClients;
+
+    @ConfigProperty(name = "sofi.dedup.store", defaultValue = "local")
+    private String store;
+
+    @ConfigProperty(name = "sofi.dedup.cache.size", defaultValue = "10000")
+    private int maxEntries;
+
+    @ConfigProperty(name = "sofi.dedup.dynamodb.table", defaultValue = "sofi-processed-messages")
+    private String tableName;
+
+    @Produces
+    @ApplicationScoped
+    DeduplicationStore deduplicationStore() {
+        if (!DYNAMODB.equals(store)) {
+            log.info(" Using the in-memory deduplication store");
+            return new InMemoryDeduplicationStore(maxEntries);
+        }
+        if (!dynamoDbClients.isResolvable()) {
+            throw new IllegalStateException(
+                    "sofi.dedup.store=dynamodb requires the quarkus-amazon-dynamodb extension");
+        }
+        log.info(" Using the DynamoDB deduplication store on the table {}", tableName);
+        return new DynamoDbDeduplicationStore(dynamoDbClients.get(), tableName);
+    }
+}
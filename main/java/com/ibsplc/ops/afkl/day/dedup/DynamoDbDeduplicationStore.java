@@ -0,0 +1,100 @@
+package com.ibsplc.ops.afkl.day.dedup;
+
+import com.ibsplc.ops.afkl.day.enums.ClaimStatus;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+
+import java.util.Map;
+
+/**
+ * Deduplication store backed by a DynamoDB table shared by all the Lambda instances.
+ *
+ * <p>The table has the string partition key messageId, the string attribute claimStatus (IN_PROGRESS or DONE) and
+ * the number attribute expiresAt, which should be set as the TTL attribute of the table so that DynamoDB deletes the
+ * expired records. The expiry of a lease is checked by the conditions, not left to the TTL deletion which can lag.
+ *
+ * <p>Created by the {@link DeduplicationStoreProducer} only when sofi.dedup.store is dynamodb.
+ */
+public class DynamoDbDeduplicationStore implements DeduplicationStore {
+
+    private static final String MESSAGE_ID = "messageId";
+    private static final String CLAIM_STATUS = "claimStatus";
+    private static final String EXPIRES_AT = "expiresAt";
+    private static final String NOW = ":now";
+    private static final String IN_PROGRESS = ":inProgress";
+    private static final String NOT_RECORDED_CONDITION =
+            "attribute_not_exists(" + MESSAGE_ID + ") OR " + EXPIRES_AT + " <= " + NOW;
+    private static final String IN_PROGRESS_CONDITION = CLAIM_STATUS + " = " + IN_PROGRESS;
+
+    private final DynamoDbClient dynamoDbClient;
+
+    private final String tableName;
+
+    DynamoDbDeduplicationStore(DynamoDbClient dynamoDbClient, String tableName) {
+        super();
+        this.dynamoDbClient = dynamoDbClient;
+        this.tableName = tableName;
+    }
+
+    @Override
+    public ClaimStatus acquire(String messageId, long leaseExpiresAtMillis) {
+        try {
+            dynamoDbClient.putItem(PutItemRequest.builder()
+                    .tableName(tableName)
+                    .item(item(messageId, ClaimStatus.IN_PROGRESS, leaseExpiresAtMillis))
+                    .conditionExpression(NOT_RECORDED_CONDITION)
+                    .expressionAttributeValues(Map.of(
+                            NOW, AttributeValue.fromN(Long.toString(System.currentTimeMillis() / 1000))))
+                    .build());
+            return ClaimStatus.CLAIMED;
+        } catch (ConditionalCheckFailedException exception) {
+            // only duplicates get here, reading the record back is cheaper than a conditional put on every message
+            Map<String, AttributeValue> record = dynamoDbClient.getItem(GetItemRequest.builder()
+                    .tableName(tableName)
+                    .key(Map.of(MESSAGE_ID, AttributeValue.fromS(messageId)))
+                    .consistentRead(true)
+                    .build()).item();
+            if (record == null || record.isEmpty()) {
+                // expired and deleted in the meantime, the retry will take the lease
+                return ClaimStatus.IN_PROGRESS;
+            }
+            AttributeValue claimStatus = record.get(CLAIM_STATUS);
+            return claimStatus != null && ClaimStatus.IN_PROGRESS.name().equals(claimStatus.s())
+                    ? ClaimStatus.IN_PROGRESS : ClaimStatus.DONE;
+        }
+    }
+
+    @Override
+    public void complete(String messageId, long expiresAtMillis) {
+        dynamoDbClient.putItem(PutItemRequest.builder()
+                .tableName(tableName)
+                .item(item(messageId, ClaimStatus.DONE, expiresAtMillis))
+                .build());
+    }
+
+    @Override
+    public void remove(String messageId) {
+        try {
+            dynamoDbClient.deleteItem(DeleteItemRequest.builder()
+                    .tableName(tableName)
+                    .key(Map.of(MESSAGE_ID, AttributeValue.fromS(messageId)))
+                    .conditionExpression(IN_PROGRESS_CONDITION)
+                    .expressionAttributeValues(Map.of(
+                            IN_PROGRESS, AttributeValue.fromS(ClaimStatus.IN_PROGRESS.name())))
+                    .build());
+        } catch (ConditionalCheckFailedException exception) {
+            // the message was marked done in the meantime, its record is kept
+        }
+    }
+
+    private static Map<String, AttributeValue> item(String messageId, ClaimStatus claimStatus, long expiresAtMillis) {
+        return Map.of(
+                MESSAGE_ID, AttributeValue.fromS(messageId),
+                CLAIM_STATUS, AttributeValue.fromS(claimStatus.name()),
+                EXPIRES_AT, AttributeValue.fromN(Long.toString(expiresAtMillis / 1000)));
+    }
+}
@@ -0,0 +1,32 @@
+package com.ibsplc.ops.afkl.day.dedup;
+
+/**
+ * 64-bit FNV-1a hashing of character sequences, without allocation.
+ */
+final class HashUtil {
+
+    static final long SEED = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private HashUtil() {
+        super();
+    }
+
+    static long hash(String value) {
+        return hash(SEED, value, 0);
+    }
+
+    /**
+     * Continues the hash with the characters of the value from the given index
+     */
+    static long hash(long hash, String value, int from) {
+        for (int i = from; i < value.length(); i++) {
+            hash = hash(hash, value.charAt(i));
+        }
+        return hash;
+    }
+
+    static long hash(long hash, char character) {
+        return (hash ^ character) * FNV_PRIME;
+    }
+}
@@ -0,0 +1,51 @@
+package com.ibsplc.ops.afkl.day.dedup;
+
+import com.ibsplc.ops.afkl.day.enums.ClaimStatus;
+
+/**
+ * Deduplication store kept in the memory of the instance. It only sees the messages processed by this instance,
+ * needs no infrastructure and is the one used for local runs and offline tests.
+ *
+ * <p>The message ids are kept as 64-bit hashes in two {@link MessageIdHashCache}s of sofi.dedup.cache.size entries,
+ * one for the leases and one for the done records: the memory is bounded and, once full, the entry expiring first
+ * in the probe window is evicted, expired or not. An evicted message id is not recognised as a duplicate any more.
+ */
+public class InMemoryDeduplicationStore implements DeduplicationStore {
+
+    private final MessageIdHashCache leases;
+
+    private final MessageIdHashCache done;
+
+    InMemoryDeduplicationStore(int maxEntries) {
+        super();
+        leases = new MessageIdHashCache(maxEntries);
+        done = new MessageIdHashCache(maxEntries);
+    }
+
+    @Override
+    public synchronized ClaimStatus acquire(String messageId, long leaseExpiresAtMillis) {
+        long hash = HashUtil.hash(messageId);
+        long now = System.currentTimeMillis();
+        if (done.contains(hash, now)) {
+            return ClaimStatus.DONE;
+        }
+        if (leases.contains(hash, now)) {
+            return ClaimStatus.IN_PROGRESS;
+        }
+        leases.add(hash, leaseExpiresAtMillis, now);
+        return ClaimStatus.CLAIMED;
+    }
+
+    @Override
+    public synchronized void complete(String messageId, long expiresAtMillis) {
+        long hash = HashUtil.hash(messageId);
+        long now = System.currentTimeMillis();
+        leases.remove(hash, now);
+        done.add(hash, expiresAtMillis, now);
+    }
+
+    @Override
+    public synchronized void remove(String messageId) {
+        leases.remove(HashUtil.hash(messageId), System.currentTimeMillis());
+    }
+}
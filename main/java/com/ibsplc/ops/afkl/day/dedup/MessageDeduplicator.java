@@ -0,0 +1,133 @@
+package com.ibsplc.ops.afkl.day.dedup;
+
+import com.ibsplc.ops.afkl.day.enums.ClaimStatus;
+import com.ibsplc.ops.afkl.day.util.MessageIdUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Idempotency of the processing, keyed on the normalised messageID of the SOAP header.
+ *
+ * <p>A message id is claimed before the message is mapped, with a lease of sofi.dedup.lease.seconds in the
+ * {@link DeduplicationStore}, which can be shared by all the instances. Once the outputs of the record are
+ * published, the message id is completed: it is marked done for sofi.dedup.ttl.seconds and a later message with the
+ * same id is a duplicate. A record to be redelivered releases its lease; a record lost with its invocation (crash,
+ * out of memory, hard timeout) leaves a lease that expires, after which its redelivery is processed. A message whose
+ * id is leased by another invocation is neither processed nor dropped, it is retried.
+ *
+ * <p>The done message ids are also kept in a local cache of hashes, looked up before the store. The leases are never
+ * cached, so that a released or expired lease is seen at once by every instance.
+ *
+ * <p>While the pipeline is primed, every message is claimed without touching the store nor the cache, so that the
+ * priming neither costs store requests nor leaves its synthetic message ids behind.
+ */
+@Slf4j
+@ApplicationScoped
+@SuppressWarnings("unused")
+public class MessageDeduplicator {
+
+    @Inject
+    private Instance<DeduplicationStore> deduplicationStores;
+
+    @ConfigProperty(name = "sofi.dedup.enabled", defaultValue = "true")
+    private boolean enabled;
+
+    @ConfigProperty(name = "sofi.dedup.ttl.seconds", defaultValue = "3600")
+    private long ttlSeconds;
+
+    @ConfigProperty(name = "sofi.dedup.lease.seconds", defaultValue = "300")
+    private long leaseSeconds;
+
+    @ConfigProperty(name = "sofi.dedup.cache.size", defaultValue = "10000")
+    private int cacheSize;
+
+    private DeduplicationStore deduplicationStore;
+
+    private MessageIdHashCache cache;
+
+    private volatile boolean priming;
+
+    @PostConstruct
+    void init() {
+        if (enabled) {
+            deduplicationStore = deduplicationStores.get();
+            cache = new MessageIdHashCache(cacheSize);
+        }
+    }
+
+    /**
+     * While priming, the messages are claimed without deduplication
+     *
+     * @param priming true while the pipeline is primed
+     */
+    public void setPriming(boolean priming) {
+        this.priming = priming;
+    }
+
+    /**
+     * Claims the message id for processing
+     *
+     * @param messageId the messageID of the SOAP header
+     * @return CLAIMED if the message is to be processed, DONE if it is a duplicate, IN_PROGRESS if another
+     * invocation is processing it
+     */
+    public ClaimStatus claim(String messageId) {
+        String normalizedMessageId = MessageIdUtil.normalizeMessageId(messageId);
+        if (!enabled || priming || StringUtils.isEmpty(normalizedMessageId)) {
+            return ClaimStatus.CLAIMED;
+        }
+        long now = System.currentTimeMillis();
+        if (cache.contains(HashUtil.hash(normalizedMessageId), now)) {
+            return ClaimStatus.DONE;
+        }
+        try {
+            return deduplicationStore.acquire(normalizedMessageId, now + leaseSeconds * 1000);
+        } catch (Exception exception) {
+            log.warn(" Deduplication store unavailable, the message {} is processed without check",
+                    normalizedMessageId, exception);
+            return ClaimStatus.CLAIMED;
+        }
+    }
+
+    /**
+     * Marks the message id as processed, once the outputs of its record are published
+     *
+     * @param messageId the messageID of the SOAP header
+     */
+    public void complete(String messageId) {
+        String normalizedMessageId = MessageIdUtil.normalizeMessageId(messageId);
+        if (!enabled || priming || StringUtils.isEmpty(normalizedMessageId)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long expiresAtMillis = now + ttlSeconds * 1000;
+        cache.add(HashUtil.hash(normalizedMessageId), expiresAtMillis, now);
+        try {
+            deduplicationStore.complete(normalizedMessageId, expiresAtMillis);
+        } catch (Exception exception) {
+            log.warn(" Failed to complete the message {} in the deduplication store", normalizedMessageId, exception);
+        }
+    }
+
+    /**
+     * Releases the lease of a message id, so that its redelivery is processed
+     *
+     * @param messageId the messageID of the SOAP header
+     */
+    public void release(String messageId) {
+        String normalizedMessageId = MessageIdUtil.normalizeMessageId(messageId);
+        if (!enabled || priming || StringUtils.isEmpty(normalizedMessageId)) {
+            return;
+        }
+        try {
+            deduplicationStore.remove(normalizedMessageId);
+        } catch (Exception exception) {
+            log.warn(" Failed to release the message {} in the deduplication store", normalizedMessageId, exception);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.ibsplc.ops.afkl.day.dedup;
+
+/**
+ * Bounded set of 64-bit message id hashes with an expiry time, kept in two primitive arrays.
+ *
+ * <p>The set is an open-addressing table probed over a small window. When the window of a new hash has no free or
+ * expired slot, the entry expiring first is overwritten: the cache may forget an entry early, which only means the
+ * deduplication store is asked again.
+ */
+final class MessageIdHashCache {
+
+    private static final int MAX_PROBES = 8;
+
+    private final long[] hashes;
+    private final long[] expiries;
+    private final int mask;
+
+    MessageIdHashCache(int maxEntries) {
+        int capacity = Integer.highestOneBit(Math.max(MAX_PROBES, maxEntries) * 2 - 1);
+        hashes = new long[capacity];
+        expiries = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    synchronized boolean contains(long hash, long now) {
+        return indexOf(hash, now) >= 0;
+    }
+
+    synchronized void add(long hash, long expiresAtMillis, long now) {
+        int index = indexOf(hash, now);
+        if (index < 0) {
+            int start = slot(hash);
+            index = start;
+            for (int probe = 0; probe < MAX_PROBES; probe++) {
+                int candidate = (start + probe) & mask;
+                if (expiries[candidate] <= now) {
+                    index = candidate;
+                    break;
+                }
+                if (expiries[candidate] < expiries[index]) {
+                    index = candidate;
+                }
+            }
+            hashes[index] = hash;
+        }
+        expiries[index] = expiresAtMillis;
+    }
+
+    synchronized void remove(long hash, long now) {
+        int index = indexOf(hash, now);
+        if (index >= 0) {
+            expiries[index] = 0L;
+        }
+    }
+
+    private int indexOf(long hash, long now) {
+        int start = slot(hash);
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int index = (start + probe) & mask;
+            if (hashes[index] == hash && expiries[index] > now) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private int slot(long hash) {
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,97 @@
+package com.ibsplc.ops.afkl.day.dedup;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Detects the outputs identical to the last one generated for the same flight and output type, so that they are not
+ * published again.
+ *
+ * <p>The content hash leaves out the start tag of the root element, whose attributes (time stamp, transaction
+ * identifier, sequence number) change with every message.
+ *
+ * <p>The last outputs are kept in memory, per instance. The detection is only correct when a single instance
+ * processes all the messages, i.e. with a reserved concurrency of 1: with several instances, an instance compares an
+ * output with the last one it generated itself, not with the last one published, and suppresses real changes. It is
+ * therefore disabled by default (sofi.change.detection.enabled).
+ */
+@Slf4j
+@ApplicationScoped
+@SuppressWarnings("unused")
+public class OutputChangeDetector {
+
+    private static final char SEPARATOR = '|';
+
+    @ConfigProperty(name = "sofi.change.detection.enabled", defaultValue = "false")
+    private boolean enabled;
+
+    @ConfigProperty(name = "sofi.change.detection.cache.size", defaultValue = "20000")
+    private int cacheSize;
+
+    private final Set<String> messageTypes = ConcurrentHashMap.newKeySet();
+
+    private ContentHashCache cache;
+
+    @PostConstruct
+    void init() {
+        cache = new ContentHashCache(cacheSize);
+        if (enabled) {
+            log.warn(" Output change detection is enabled, it is only correct with a single instance of the service");
+        }
+    }
+
+    /**
+     * Records the content hash of the output and tells whether it is the same as the previous output
+     *
+     * @param flightKey   the flight the output is about, see FlightKeyUtil
+     * @param messageType the output type (AF AIDX, KL AIDX, KL CDM)
+     * @param xml         the output xml
+     * @return true if the output is identical to the previous one of the same flight and output type
+     */
+    public boolean isUnchanged(String flightKey, String messageType, String xml) {
+        if (!enabled) {
+            return false;
+        }
+        messageTypes.add(messageType);
+        return cache.put(keyHash(flightKey, messageType), contentHash(xml));
+    }
+
+    /**
+     * Forgets the outputs of a flight, so that the next ones are published even if unchanged. Used when the record
+     * is to be redelivered, as its outputs may not have been published.
+     *
+     * @param flightKey the flight
+     */
+    public void forget(String flightKey) {
+        if (enabled) {
+            messageTypes.forEach(messageType -> cache.remove(keyHash(flightKey, messageType)));
+        }
+    }
+
+    private static long keyHash(String flightKey, String messageType) {
+        return HashUtil.hash(HashUtil.hash(HashUtil.hash(flightKey), SEPARATOR), messageType, 0);
+    }
+
+    /**
+     * Hash of the xml from the end of the root element start tag
+     */
+    private static long contentHash(String xml) {
+        int tagEnd = -1;
+        int tagStart = xml.indexOf('<');
+        while (tagStart >= 0) {
+            tagEnd = xml.indexOf('>', tagStart);
+            boolean prolog = tagStart + 1 < xml.length()
+                    && (xml.charAt(tagStart + 1) == '?' || xml.charAt(tagStart + 1) == '!');
+            if (!prolog || tagEnd < 0) {
+                break;
+            }
+            tagStart = xml.indexOf('<', tagEnd);
+        }
+        return HashUtil.hash(HashUtil.SEED, xml, tagEnd + 1);
+    }
+}
@@ -0,0 +1,22 @@
+package com.ibsplc.ops.afkl.day.enums;
+
+/**
+ * Outcome of the claim of a message id for processing
+ */
+public enum ClaimStatus {
+
+    /**
+     * The message id was free and is now leased to the caller
+     */
+    CLAIMED,
+
+    /**
+     * Another invocation holds an unexpired lease on the message id, the record is to be retried later
+     */
+    IN_PROGRESS,
+
+    /**
+     * The message was already processed, the record is a duplicate
+     */
+    DONE
+}
@@ -0,0 +1,21 @@
+package com.ibsplc.ops.afkl.day.enums;
+
+import lombok.Getter;
+
+/**
+ * Why the pre-filter discarded an inbound message without parsing it
+ */
+@Getter
+public enum DropReason {
+
+    UNKNOWN_AIRLINE("unknown_airline"),
+    NO_FLIGHT_LEG("no_flight_leg"),
+    NO_LEG_DATA("no_leg_data");
+
+    private final String tag;
+
+    DropReason(String tag) {
+        this.tag = tag;
+    }
+
+}
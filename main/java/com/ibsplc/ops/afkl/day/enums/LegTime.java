@@ -0,0 +1,21 @@
+package com.ibsplc.ops.afkl.day.enums;
+
+/**
+ * The flight leg times read by the AIDX and CDM mappers.
+ */
+public enum LegTime {
+
+    DEPARTURE_TARGET_TAKE_OFF,
+    DEPARTURE_ACTUAL_STARTUP_REQUEST,
+    DEPARTURE_TARGET_STARTUP_APPROVAL,
+    DEPARTURE_TARGET_OFF_BLOCK,
+    DEPARTURE_ACTUAL_TOUCH_DOWN,
+    DEPARTURE_ESTIMATED_TOUCH_DOWN,
+    DEPARTURE_SCHEDULED,
+    DEPARTURE_ACTUAL,
+    DEPARTURE_ACTUAL_TAKE_OFF,
+    DEPARTURE_ESTIMATED_INTERNAL,
+    ARRIVAL_SCHEDULED,
+    ARRIVAL_ESTIMATED,
+    ARRIVAL_ACTUAL
+}
@@ -0,0 +1,28 @@
+package com.ibsplc.ops.afkl.day.enums;
+
+/**
+ * How much of the SOFI, AIDX and CDM payloads is written to the log.
+ */
+public enum PayloadLogMode {
+
+    /**
+     * No payload line; failures log the payload metadata
+     */
+    OFF,
+    /**
+     * Length of the payload only
+     */
+    METADATA,
+    /**
+     * Beginning of the payload, up to sofi.logging.payload.max.length characters
+     */
+    TRUNCATED,
+    /**
+     * Whole payload for one line out of sofi.logging.payload.sample.rate, metadata for the others
+     */
+    SAMPLED,
+    /**
+     * Whole payload
+     */
+    FULL
+}
@@ -0,0 +1,22 @@
+package com.ibsplc.ops.afkl.day.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum PipelineStage {
+
+    PREFILTER("prefilter"),
+    PARSE("parse"),
+    ENVELOPE("envelope"),
+    INPUT_VALIDATION("input_validation"),
+    MAPPING("mapping"),
+    MARSHALLING("marshalling"),
+    PUBLISH("publish");
+
+    private final String tag;
+
+    PipelineStage(String tag) {
+        this.tag = tag;
+    }
+
+}
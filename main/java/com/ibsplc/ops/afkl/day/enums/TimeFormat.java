@@ -0,0 +1,27 @@
+package com.ibsplc.ops.afkl.day.enums;
+
+import lombok.Getter;
+
+import java.time.format.DateTimeFormatter;
+
+import static com.ibsplc.ops.afkl.day.constants.CDMByKLConstants.DATE_TIME_PATTERN;
+import static com.ibsplc.ops.afkl.day.constants.CDMByKLConstants.DATE_TIME_PATTERN_CDM;
+import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.OPERATION_TIME_DATE_TIME_FORMAT;
+
+/**
+ * The date and time formats of the output messages, with their formatter compiled once.
+ */
+@Getter
+public enum TimeFormat {
+
+    OPERATION_TIME(OPERATION_TIME_DATE_TIME_FORMAT),
+    CDM_TIMESTAMP(DATE_TIME_PATTERN),
+    CDM_DATE(DATE_TIME_PATTERN_CDM);
+
+    private final DateTimeFormatter formatter;
+
+    TimeFormat(String pattern) {
+        this.formatter = DateTimeFormatter.ofPattern(pattern);
+    }
+
+}
@@ -2,27 +2,52 @@ package com.ibsplc.ops.afkl.day.events;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
 import com.amazonaws.services.lambda.runtime.events.SQSEvent;
+import com.ibsplc.ops.afkl.day.dedup.MessageDeduplicator;
+import com.ibsplc.ops.afkl.day.dedup.OutputChangeDetector;
+import com.ibsplc.ops.afkl.day.enums.ClaimStatus;
 import com.ibsplc.ops.afkl.day.enums.ErrorCodes;
-import com.ibsplc.ops.afkl.day.processor.SOFIByAFProcessor;
-import com.ibsplc.ops.afkl.day.processor.SOFIByKLProcessor;
+import com.ibsplc.ops.afkl.day.enums.PipelineStage;
+import com.ibsplc.ops.afkl.day.metrics.PipelineMetrics;
+import com.ibsplc.ops.afkl.day.prefilter.SofiPreFilter;
+import com.ibsplc.ops.afkl.day.processor.AirlineProcessorRegistry;
+import com.ibsplc.ops.afkl.day.processor.AirlineRoute;
+import com.ibsplc.ops.afkl.day.publisher.SOFIByAFKLPublisher;
+import com.ibsplc.ops.afkl.day.util.FlightKeyUtil;
+import com.ibsplc.ops.afkl.day.util.InboundSofiMessage;
+import com.ibsplc.ops.afkl.day.util.PayloadLogger;
 import com.ibsplc.ops.afkl.day.util.XmlParserUtil;
-import com.ibsplc.ops.afkl.day.util.XmlValidationUtil;
+import com.ibsplc.si.event.schema.sofi.FlightIdentifier;
+import com.ibsplc.si.event.schema.sofi.OperationalFlight;
 import com.ibsplc.si.event.schema.sofi.SendOperationalFlightInternalEvent;
 import com.ibsplc.si.event.schema.sofi.SoapHeader;
 import com.ibsplc.si.framework.exception.CustomException;
-import com.ibsplc.si.framework.util.LoggerUtility;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ObjectUtils;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import software.amazon.awssdk.core.exception.SdkException;
 
 import javax.xml.bind.JAXBException;
-
-import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.AF;
-import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.KL;
-import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.SOFI_XSD;
+import javax.xml.datatype.DatatypeConstants;
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Handler class for processing messages from SQS and transforming the message and finally publishing them to an AWS SQS queue.
@@ -40,71 +65,410 @@ import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.SOFI_XSD;
 @ApplicationScoped
 @Named("SOFIByAFKLSqsConsumer")
 @SuppressWarnings("unused")
-public class SOFIByAFKLSqsConsumer implements RequestHandler<SQSEvent, Void> {
+public class SOFIByAFKLSqsConsumer implements RequestHandler<SQSEvent, SQSBatchResponse> {
 
     @Inject
-    private SOFIByAFProcessor sofiByAFProcessor;
+    private AirlineProcessorRegistry airlineProcessorRegistry;
 
     @Inject
-    private SOFIByKLProcessor sofiByKLProcessor;
+    private XmlParserUtil xmlParserUtil;
 
     @Inject
-    private XmlParserUtil xmlParserUtil;
+    private SOFIByAFKLPublisher sofiByAFKLPublisher;
+
+    @Inject
+    private PipelineMetrics pipelineMetrics;
+
+    @Inject
+    private MessageDeduplicator messageDeduplicator;
+
+    @Inject
+    private OutputChangeDetector outputChangeDetector;
+
+    @Inject
+    private PayloadLogger payloadLogger;
+
+    @Inject
+    private SofiPreFilter sofiPreFilter;
+
+    @ConfigProperty(name = "sofi.consumer.timeout.margin.millis", defaultValue = "5000")
+    private long timeoutMarginMillis;
+
+    @ConfigProperty(name = "sofi.consumer.parallelism", defaultValue = "1")
+    private int parallelism;
+
+    @ConfigProperty(name = "sofi.consumer.coalescing.enabled", defaultValue = "false")
+    private boolean coalescingEnabled;
+
+    private ExecutorService recordExecutor;
+
+    @PostConstruct
+    void init() {
+        if (parallelism > 1) {
+            recordExecutor = Executors.newFixedThreadPool(parallelism, runnable -> {
+                Thread thread = new Thread(runnable, "sofi-record-worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @PreDestroy
+    void destroy() {
+        if (recordExecutor != null) {
+            recordExecutor.shutdown();
+        }
+    }
 
     /**
      * Lambda Request Handler for SQS Consumer
      * if we receive a KL message this method will generate one AIDX message & CDM message
      * if we receive a AF message this method will generate only one AF message
      *
+     * <p>Only the records which failed for a retryable reason (publishing error, SDK error or not processed before
+     * the invocation timeout) are reported as batch item failures, so that SQS redelivers them alone. Records
+     * failing permanently (E0001, E0002, E0003, output generation) are logged and dropped.
+     *
+     * <p>A record which provably produces no output (unknown airline, no flight leg, no time nor airport resource)
+     * is discarded by the pre-filter before being parsed.
+     *
+     * <p>A record whose SOAP header messageID was already processed is skipped as a duplicate. A record whose
+     * messageID is being processed by another invocation is reported for redelivery. The messageID of a record is
+     * marked processed only once its outputs are published. The messageID of a record reported for redelivery is
+     * released, and the last outputs of its flight are forgotten, so that the redelivery is processed and published.
+     *
+     * <p>With sofi.consumer.parallelism above 1, the records are parsed in parallel, then transformed and published
+     * in parallel per flight (airline code, flight number, scheduled date, departure airport); the records of the
+     * same flight are always transformed one after another in arrival order. Once a record of a flight is to be
+     * redelivered, the following records of the flight are not transformed and are redelivered as well, even those
+     * already published, so that the flight is updated in arrival order. With sofi.consumer.coalescing.enabled,
+     * only the latest record of each flight is transformed.
+     *
+     * <p>The records are transformed by the processor registered for their airline code. When the route of the
+     * airline has its own executor (sofi.route.concurrency), its flights run there instead of on the record workers;
+     * the flights refused by a full route are redelivered.
+     *
      * @param sqsEvent - The event to be passed to this lambda.
      * @param context  - The context variable for this lambda instance
+     * @return the records to be redelivered
      */
     @Override
-    public Void handleRequest(SQSEvent sqsEvent, Context context) {
+    public SQSBatchResponse handleRequest(SQSEvent sqsEvent, Context context) {
 
-        sqsEvent.getRecords().forEach(sqsMessage -> {
-            try {
-                String message = sqsMessage.getBody();
-                log.info(" Received message: {}", LoggerUtility.sanitizeMessage(message));
-                String messageBody = xmlParserUtil.extractXmlPartsFromSoapMessage(
-                        message, Boolean.TRUE
-                );
-                boolean isInputXmlValid = XmlValidationUtil.validateXMLAgainstXSD(messageBody, SOFI_XSD);
-                if (!isInputXmlValid) {
-                    log.error(" XSD validation error in the input message. Message will not" +
-                            " be processed further: \n{}", LoggerUtility.sanitizeMessage(message));
-                    throw new CustomException("", ErrorCodes.E0002.name(), ErrorCodes.E0002.getDescription(),
-                            new Exception("XSD validation error in the input message"));
+        Set<String> retryableRecordIds = ConcurrentHashMap.newKeySet();
+        List<SQSEvent.SQSMessage> sqsMessages = sqsEvent.getRecords();
+        ParsedRecord[] parsedRecords = new ParsedRecord[sqsMessages.size()];
+        List<Runnable> parseTasks = new ArrayList<>(sqsMessages.size());
+        for (int i = 0; i < sqsMessages.size(); i++) {
+            int index = i;
+            SQSEvent.SQSMessage sqsMessage = sqsMessages.get(i);
+            parseTasks.add(() -> {
+                if (isTimingOut(context, sqsMessage.getMessageId())) {
+                    retryableRecordIds.add(sqsMessage.getMessageId());
+                } else {
+                    parsedRecords[index] = parseRecord(sqsMessage, retryableRecordIds);
                 }
-                SendOperationalFlightInternalEvent sendOperationalFlightInternalEvent =
-                        xmlParserUtil.parseXmlToObject(
-                                SendOperationalFlightInternalEvent.class, messageBody
-                        );
-                SoapHeader soapHeader = xmlParserUtil.parseSoapHeaderFromXml(
-                        xmlParserUtil.extractXmlPartsFromSoapMessage(message, Boolean.FALSE));
-                if (ObjectUtils.isNotEmpty(sendOperationalFlightInternalEvent)) {
-                    String airlineCode = sendOperationalFlightInternalEvent.getOperationalFlight().getFlightIdentifier()
-                            .getAirlineCode();
-                    if (airlineCode.equals(AF)) {
-                        log.info(" Received message from AF");
-                        sofiByAFProcessor.processSendOperationalFlightInternalEvent(sendOperationalFlightInternalEvent, soapHeader);
-                    } else if (airlineCode.equals(KL)) {
-                        log.info(" Received message from KL");
-                        sofiByKLProcessor.processSendOperationalFlightInternalEvent(sendOperationalFlightInternalEvent, soapHeader);
-                    } else {
-                        log.error(" Received message is neither AF nor KL. Cannot process the message further.");
-                        throw new CustomException(null, ErrorCodes.E0001.name(), ErrorCodes.E0001.getDescription(), null);
+            });
+        }
+        runAll(parseTasks);
+
+        Map<String, List<ParsedRecord>> recordsByFlight = new LinkedHashMap<>();
+        for (ParsedRecord parsedRecord : parsedRecords) {
+            if (parsedRecord != null) {
+                recordsByFlight.computeIfAbsent(FlightKeyUtil.getFlightKey(
+                                parsedRecord.getSendOperationalFlightInternalEvent()), flightKey -> new ArrayList<>())
+                        .add(parsedRecord);
+            }
+        }
+        List<Runnable> transformTasks = new ArrayList<>(recordsByFlight.size());
+        List<CompletableFuture<Void>> routedTasks = new ArrayList<>();
+        recordsByFlight.values().forEach(flightRecords -> {
+            Runnable transformTask = () -> {
+                boolean retrying = false;
+                for (ParsedRecord parsedRecord : coalescingEnabled ? coalesce(flightRecords) : flightRecords) {
+                    if (retrying || isTimingOut(context, parsedRecord.getRecordId())
+                            || !transformRecord(parsedRecord)) {
+                        retryableRecordIds.add(parsedRecord.getRecordId());
+                        retrying = true;
                     }
-                } else {
-                    log.error(" SOFI input message parsing failed!! ");
                 }
-            } catch (JAXBException jaxbException) {
-                log.error(" An error occurred while generating the output xml", jaxbException);
-            } catch (Exception exception) {
-                log.error(" Unexpected exception occurred:", exception);
+            };
+            AirlineRoute airlineRoute = airlineProcessorRegistry.getRoute(
+                    getAirlineCode(flightRecords.get(0).getSendOperationalFlightInternalEvent()));
+            if (airlineRoute != null && airlineRoute.getExecutor() != null) {
+                routedTasks.add(submit(airlineRoute, transformTask, flightRecords, retryableRecordIds));
+            } else {
+                transformTasks.add(transformTask);
             }
         });
+        runAll(transformTasks);
+        CompletableFuture.allOf(routedTasks.toArray(CompletableFuture[]::new)).join();
+
+        Set<String> failedRecordIds = sofiByAFKLPublisher.flush();
+        if (!failedRecordIds.isEmpty()) {
+            log.error(" Failed to publish the output messages of the records: {}", failedRecordIds);
+            retryableRecordIds.addAll(failedRecordIds);
+        }
+        recordsByFlight.values().forEach(flightRecords -> retryLaterRecords(flightRecords, retryableRecordIds));
+        for (ParsedRecord parsedRecord : parsedRecords) {
+            if (parsedRecord == null) {
+                continue;
+            }
+            if (retryableRecordIds.contains(parsedRecord.getRecordId())) {
+                messageDeduplicator.release(getMessageId(parsedRecord.getSoapHeader()));
+                outputChangeDetector.forget(FlightKeyUtil.getFlightKey(
+                        parsedRecord.getSendOperationalFlightInternalEvent()));
+            } else {
+                messageDeduplicator.complete(getMessageId(parsedRecord.getSoapHeader()));
+            }
+        }
+        List<SQSBatchResponse.BatchItemFailure> batchItemFailures = new ArrayList<>(retryableRecordIds.size());
+        sqsMessages.stream()
+                .map(SQSEvent.SQSMessage::getMessageId)
+                .filter(retryableRecordIds::contains)
+                .forEach(recordId -> batchItemFailures.add(new SQSBatchResponse.BatchItemFailure(recordId)));
+        return new SQSBatchResponse(batchItemFailures);
+    }
+
+    /**
+     * Runs the tasks on the record executor and waits for all of them, or runs them in order on the calling thread
+     * when no parallelism is configured
+     */
+    private void runAll(List<Runnable> tasks) {
+        if (recordExecutor == null || tasks.size() <= 1) {
+            tasks.forEach(Runnable::run);
+            return;
+        }
+        CompletableFuture.allOf(tasks.stream()
+                .map(task -> CompletableFuture.runAsync(task, recordExecutor))
+                .toArray(CompletableFuture[]::new)).join();
+    }
+
+    /**
+     * Runs the transformation of a flight on the executor of its airline route. A flight refused because the queue
+     * of the route is full is not transformed, its records are redelivered.
+     *
+     * @return the completion of the transformation
+     */
+    private CompletableFuture<Void> submit(AirlineRoute airlineRoute, Runnable transformTask,
+                                           List<ParsedRecord> flightRecords, Set<String> retryableRecordIds) {
+        try {
+            return CompletableFuture.runAsync(transformTask, airlineRoute.getExecutor());
+        } catch (RejectedExecutionException exception) {
+            pipelineMetrics.incrementRouteRejected(airlineRoute.getAirlineCode());
+            log.warn(" Route {} is full, the {} records of the flight will be retried", airlineRoute.getAirlineCode(),
+                    flightRecords.size());
+            flightRecords.forEach(parsedRecord -> retryableRecordIds.add(parsedRecord.getRecordId()));
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * Marks for redelivery the records of a flight following one to be redelivered, so that the redelivered record
+     * does not overwrite the newer state of the flight downstream
+     *
+     * @param flightRecords      the records of a flight in arrival order
+     * @param retryableRecordIds the records to be redelivered
+     */
+    private static void retryLaterRecords(List<ParsedRecord> flightRecords, Set<String> retryableRecordIds) {
+        boolean retrying = false;
+        for (ParsedRecord parsedRecord : flightRecords) {
+            if (retrying) {
+                retryableRecordIds.add(parsedRecord.getRecordId());
+            } else {
+                retrying = retryableRecordIds.contains(parsedRecord.getRecordId());
+            }
+        }
+    }
+
+    /**
+     * @return the messageID of the SOAP header, null when the header could not be bound, so that the record is
+     * processed without deduplication
+     */
+    private static String getMessageId(SoapHeader soapHeader) {
+        return soapHeader != null ? soapHeader.getMessageID() : null;
+    }
+
+    private static String getAirlineCode(SendOperationalFlightInternalEvent sendOperationalFlightInternalEvent) {
+        OperationalFlight operationalFlight = sendOperationalFlightInternalEvent.getOperationalFlight();
+        FlightIdentifier flightIdentifier = operationalFlight != null ? operationalFlight.getFlightIdentifier() : null;
+        return flightIdentifier != null ? flightIdentifier.getAirlineCode() : null;
+    }
+
+    /**
+     * Keeps only the latest update of a flight, by messageTimeStamp then arrival order. The superseded records are
+     * handled successfully without being transformed.
+     *
+     * @param flightRecords the records of a flight in arrival order
+     * @return the record to transform
+     */
+    private List<ParsedRecord> coalesce(List<ParsedRecord> flightRecords) {
+        if (flightRecords.size() <= 1) {
+            return flightRecords;
+        }
+        ParsedRecord latestRecord = flightRecords.get(0);
+        for (ParsedRecord parsedRecord : flightRecords.subList(1, flightRecords.size())) {
+            if (!isOlder(parsedRecord.getSendOperationalFlightInternalEvent().getMessageTimeStamp(),
+                    latestRecord.getSendOperationalFlightInternalEvent().getMessageTimeStamp())) {
+                latestRecord = parsedRecord;
+            }
+        }
+        for (ParsedRecord parsedRecord : flightRecords) {
+            if (parsedRecord != latestRecord) {
+                pipelineMetrics.incrementCoalesced();
+                log.info(" Record {} superseded by the record {} of the same flight, it will not be processed",
+                        parsedRecord.getRecordId(), latestRecord.getRecordId());
+            }
+        }
+        return List.of(latestRecord);
+    }
+
+    private static boolean isOlder(XMLGregorianCalendar messageTimeStamp, XMLGregorianCalendar latestTimeStamp) {
+        if (messageTimeStamp == null || latestTimeStamp == null) {
+            return messageTimeStamp == null && latestTimeStamp != null;
+        }
+        return messageTimeStamp.compare(latestTimeStamp) == DatatypeConstants.LESSER;
+    }
+
+    private boolean isTimingOut(Context context, String recordId) {
+        if (context != null && context.getRemainingTimeInMillis() < timeoutMarginMillis) {
+            log.error(" Invocation is about to time out, record {} will be retried", recordId);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Parses and validates a single record
+     *
+     * @param sqsMessage         the record
+     * @param retryableRecordIds collects the record id if it failed for a retryable reason
+     * @return the parsed record, null if there is nothing to transform
+     */
+    private ParsedRecord parseRecord(SQSEvent.SQSMessage sqsMessage, Set<String> retryableRecordIds) {
+        try {
+            String message = sqsMessage.getBody();
+            if (payloadLogger.isEnabled()) {
+                log.info(" Received message: {}", payloadLogger.payload(message));
+            }
+            pipelineMetrics.recordInputSize(message.length());
+            if (sofiPreFilter.check(message, sqsMessage.getMessageId()) != null) {
+                return null;
+            }
+            long parseStart = pipelineMetrics.start();
+            InboundSofiMessage inboundSofiMessage;
+            try {
+                inboundSofiMessage = xmlParserUtil.parseInboundSofiMessage(message);
+            } catch (CustomException customException) {
+                pipelineMetrics.incrementError(ErrorCodes.E0003);
+                throw customException;
+            }
+            pipelineMetrics.recordStage(PipelineStage.PARSE, parseStart);
+            pipelineMetrics.recordStageNanos(PipelineStage.ENVELOPE, inboundSofiMessage.getEnvelopeNanos());
+            if (inboundSofiMessage.getValidationNanos() >= 0) {
+                pipelineMetrics.recordStageNanos(PipelineStage.INPUT_VALIDATION,
+                        inboundSofiMessage.getValidationNanos());
+            }
+            if (!inboundSofiMessage.isValid()) {
+                pipelineMetrics.incrementError(ErrorCodes.E0002);
+                log.error(" XSD validation error in the input message. Message will not" +
+                        " be processed further: \n{}", payloadLogger.payload(message));
+                throw new CustomException("", ErrorCodes.E0002.name(), ErrorCodes.E0002.getDescription(),
+                        new Exception("XSD validation error in the input message"));
+            }
+            SendOperationalFlightInternalEvent sendOperationalFlightInternalEvent =
+                    inboundSofiMessage.getSendOperationalFlightInternalEvent();
+            SoapHeader soapHeader = xmlParserUtil.parseSoapHeaderFromXml(inboundSofiMessage.getHeader());
+            if (ObjectUtils.isNotEmpty(sendOperationalFlightInternalEvent)) {
+                String messageId = getMessageId(soapHeader);
+                ClaimStatus claimStatus = messageDeduplicator.claim(messageId);
+                if (claimStatus == ClaimStatus.DONE) {
+                    pipelineMetrics.incrementDuplicate();
+                    log.info(" Duplicate message {} received in record {}, it will not be processed again",
+                            messageId, sqsMessage.getMessageId());
+                    return null;
+                }
+                if (claimStatus == ClaimStatus.IN_PROGRESS) {
+                    log.warn(" Message {} received in record {} is being processed by another invocation, the" +
+                            " record will be retried", messageId, sqsMessage.getMessageId());
+                    retryableRecordIds.add(sqsMessage.getMessageId());
+                    return null;
+                }
+                return new ParsedRecord(sqsMessage.getMessageId(), sendOperationalFlightInternalEvent, soapHeader);
+            }
+            log.error(" SOFI input message parsing failed!! ");
+        } catch (Exception exception) {
+            if (isRetryable(sqsMessage.getMessageId(), exception)) {
+                retryableRecordIds.add(sqsMessage.getMessageId());
+            }
+        }
         return null;
     }
 
+    /**
+     * Transforms a single parsed record and hands its outputs to the publisher
+     *
+     * @param parsedRecord the parsed record
+     * @return false if the record failed for a retryable reason, true otherwise
+     */
+    private boolean transformRecord(ParsedRecord parsedRecord) {
+        SendOperationalFlightInternalEvent sendOperationalFlightInternalEvent =
+                parsedRecord.getSendOperationalFlightInternalEvent();
+        SoapHeader soapHeader = parsedRecord.getSoapHeader();
+        try {
+            String airlineCode = getAirlineCode(sendOperationalFlightInternalEvent);
+            AirlineRoute airlineRoute = airlineProcessorRegistry.getRoute(airlineCode);
+            pipelineMetrics.incrementAirline(airlineRoute != null ? airlineCode : null);
+            if (airlineRoute == null) {
+                log.error(" Received message from {} which has no registered processor. Cannot process the message" +
+                        " further.", airlineCode);
+                pipelineMetrics.incrementError(ErrorCodes.E0001);
+                throw new CustomException(null, ErrorCodes.E0001.name(), ErrorCodes.E0001.getDescription(), null);
+            }
+            log.info(" Received message from {}", airlineCode);
+            long routeStart = pipelineMetrics.start();
+            airlineRoute.getAirlineProcessor().processSendOperationalFlightInternalEvent(
+                    sendOperationalFlightInternalEvent, soapHeader, parsedRecord.getRecordId());
+            pipelineMetrics.recordRoute(airlineCode, routeStart);
+        } catch (Exception exception) {
+            return !isRetryable(parsedRecord.getRecordId(), exception);
+        }
+        return true;
+    }
+
+    /**
+     * Logs the failure of a record and tells whether it is worth retrying
+     *
+     * @param recordId  the record id
+     * @param exception the failure
+     * @return true if the record failed for a retryable reason
+     */
+    private static boolean isRetryable(String recordId, Exception exception) {
+        if (exception instanceof CustomException) {
+            log.error(" Permanent failure, the record {} will not be retried:", recordId, exception);
+        } else if (exception instanceof JAXBException) {
+            log.error(" An error occurred while generating the output xml", exception);
+        } else if (exception instanceof SdkException) {
+            log.error(" Retryable AWS SDK error while processing the record {}:", recordId, exception);
+            return true;
+        } else {
+            log.error(" Unexpected exception occurred:", exception);
+        }
+        return false;
+    }
+
+    /**
+     * A record which passed the parsing and validation stage
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class ParsedRecord {
+
+        private final String recordId;
+
+        private final SendOperationalFlightInternalEvent sendOperationalFlightInternalEvent;
+
+        private final SoapHeader soapHeader;
+    }
+
 }
@@ -1,15 +1,11 @@
 package com.ibsplc.ops.afkl.day.mapper;
 
+import com.ibsplc.ops.afkl.day.enums.LegTime;
+import com.ibsplc.ops.afkl.day.enums.TimeFormat;
+import com.ibsplc.ops.afkl.day.util.DateTimeFormatUtil;
 import com.ibsplc.si.event.schema.cdm.CDMFlightInfoType;
 import com.ibsplc.si.event.schema.cdm.CodeContextType;
 import com.ibsplc.si.event.schema.cdm.FlightIDType;
-import com.ibsplc.si.event.schema.sofi.Airport;
-import com.ibsplc.si.event.schema.sofi.Arrival;
-import com.ibsplc.si.event.schema.sofi.Departure;
-import com.ibsplc.si.event.schema.sofi.FlightLeg;
-import com.ibsplc.si.event.schema.sofi.OperationalFlight;
-import com.ibsplc.si.event.schema.sofi.SendOperationalFlightInternalEvent;
-import com.ibsplc.si.event.schema.sofi.Times;
 import org.mapstruct.Context;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -21,8 +17,6 @@ import javax.xml.bind.JAXBElement;
 import javax.xml.datatype.XMLGregorianCalendar;
 import javax.xml.namespace.QName;
 import java.math.BigInteger;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -36,8 +30,6 @@ import static com.ibsplc.ops.afkl.day.constants.CDMByKLConstants.ATOT;
 import static com.ibsplc.ops.afkl.day.constants.CDMByKLConstants.CDM;
 import static com.ibsplc.ops.afkl.day.constants.CDMByKLConstants.DATE;
 import static com.ibsplc.ops.afkl.day.constants.CDMByKLConstants.DATES;
-import static com.ibsplc.ops.afkl.day.constants.CDMByKLConstants.DATE_TIME_PATTERN;
-import static com.ibsplc.ops.afkl.day.constants.CDMByKLConstants.DATE_TIME_PATTERN_CDM;
 import static com.ibsplc.ops.afkl.day.constants.CDMByKLConstants.DATE_VALUE;
 import static com.ibsplc.ops.afkl.day.constants.CDMByKLConstants.EIBT;
 import static com.ibsplc.ops.afkl.day.constants.CDMByKLConstants.EOBT;
@@ -56,25 +48,22 @@ public interface CDMByKLMapper {
     CDMByKLMapper INSTANCE = Mappers.getMapper(CDMByKLMapper.class);
 
     /**
-     * Maps the SendOperationalFlightInternalEvent and a context result to a CDMFlightInfoType object.
+     * Maps the flight leg snapshot and a context result to a CDMFlightInfoType object.
      * - Maps the timestamp with a custom date formatting method.
      * - Sets the source field to a constant value.
      * - Maps nested flight details and additional fields.
      *
-     * @param sendOperationalFlightInternalEvent the source event object.
-     * @param result                             the context result.
+     * @param flightLegSnapshot the source flight leg snapshot.
+     * @param result            the context result.
      * @return the mapped CDMFlightInfoType object.
      */
     @Mapping(target = "timeStamp", source = "messageTimeStamp", qualifiedByName = "formatDateAndTime")
     @Mapping(target = "source", constant = SOFI)
-    @Mapping(target = "flightID.airportSlot", source = "sendOperationalFlightInternalEvent",
-            qualifiedByName = "mapAirportSlot")
-    @Mapping(target = "dates", expression = "java(mapToDates(sendOperationalFlightInternalEvent,result))")
+    @Mapping(target = "flightID.airportSlot", source = "flightLegSnapshot", qualifiedByName = "mapAirportSlot")
+    @Mapping(target = "dates", expression = "java(mapToDates(flightLegSnapshot,result))")
     @Mapping(target = "action", constant = UPDATE)
     @Mapping(target = "sequenceNmbr", expression = "java(mapSequenceNmbr())")
-    CDMFlightInfoType mapToCDMFlightInfoType(
-            SendOperationalFlightInternalEvent sendOperationalFlightInternalEvent, @Context String result
-    );
+    CDMFlightInfoType mapToCDMFlightInfoType(FlightLegSnapshot flightLegSnapshot, @Context String result);
 
     default BigInteger mapSequenceNmbr() {
         Random random = new Random();
@@ -90,29 +79,27 @@ public interface CDMByKLMapper {
      */
     @Named("formatDateAndTime")
     default String mapTimeStamp(XMLGregorianCalendar date) {
-        LocalDateTime localDateTime = date.toGregorianCalendar().toZonedDateTime().toLocalDateTime();
-        return localDateTime.format(DateTimeFormatter.ofPattern(DATE_TIME_PATTERN));
+        return DateTimeFormatUtil.format(date, TimeFormat.CDM_TIMESTAMP);
     }
 
     /**
      * Populates the Dates object in CDMFlightInfoType by mapping flight leg and result data.
      *
-     * @param flightLeg the flight leg details.
-     * @param result    the context result.
+     * @param flightLegSnapshot the flight leg details.
+     * @param result            the context result.
      * @return the populated Dates object.
      */
-    @Mapping(target = "cdmDate", expression = "java(mapToCdmDate(flightLeg,result))")
-    CDMFlightInfoType.Dates populateDates(FlightLeg flightLeg, String result);
+    @Mapping(target = "cdmDate", expression = "java(mapToCdmDate(flightLegSnapshot,result))")
+    CDMFlightInfoType.Dates populateDates(FlightLegSnapshot flightLegSnapshot, String result);
 
     /**
-     * Maps an XMLGregorianCalendar to a JAXBElement containing a DateValue object.
+     * Maps a formatted date to a JAXBElement containing a DateValue object.
      *
-     * @param date the XMLGregorianCalendar object.
+     * @param dateValue the formatted date.
      * @return the JAXBElement containing the DateValue object.
      */
     @Named("mapDateValue")
-    default JAXBElement<CDMFlightInfoType.Dates.CdmDate.DateValue> mapDateValue(XMLGregorianCalendar date) {
-        String dateValue = formatDateAndTime(date);
+    default JAXBElement<CDMFlightInfoType.Dates.CdmDate.DateValue> mapDateValue(String dateValue) {
         return new JAXBElement<>(new QName(NAMESPACE_URI, DATE_VALUE),
                 CDMFlightInfoType.Dates.CdmDate.DateValue.class, populateDateValue(dateValue));
     }
@@ -134,17 +121,27 @@ public interface CDMByKLMapper {
      */
     @Named("formatDateAndTimes")
     default String formatDateAndTime(XMLGregorianCalendar date) {
-        LocalDateTime localDateTime = date.toGregorianCalendar().toZonedDateTime().toLocalDateTime();
-        return localDateTime.format(DateTimeFormatter.ofPattern(DATE_TIME_PATTERN_CDM));
+        return DateTimeFormatUtil.format(date, TimeFormat.CDM_DATE);
+    }
+
+    /**
+     * Formats a flight leg time using the CDM pattern.
+     *
+     * @param flightLegSnapshot the flight leg details.
+     * @param legTime           the time to format.
+     * @return the formatted date string.
+     */
+    default String formatDateAndTime(FlightLegSnapshot flightLegSnapshot, LegTime legTime) {
+        return flightLegSnapshot.format(legTime, TimeFormat.CDM_DATE);
     }
 
     /**
      * Populates a CdmDate object with specified attributes such as result, date, name, and type.
      *
-     * @param result   the context result.
-     * @param date     the XMLGregorianCalendar date.
-     * @param dateName the name of the date.
-     * @param dateType the type of the date.
+     * @param result    the context result.
+     * @param dateValue the formatted date.
+     * @param dateName  the name of the date.
+     * @param dateType  the type of the date.
      * @return the populated CdmDate object.
      */
     @Mapping(target = "result", source = "result")
@@ -152,116 +149,54 @@ public interface CDMByKLMapper {
     @Mapping(target = "message", constant = CDM)
     @Mapping(target = "dateType", source = "dateType")
     @Mapping(target = "dateName", source = "dateName")
-    @Mapping(target = "dateValue", source = "date", qualifiedByName = "mapDateValue")
+    @Mapping(target = "dateValue", source = "dateValue", qualifiedByName = "mapDateValue")
     CDMFlightInfoType.Dates.CdmDate populateCdmDate(
-            String result, XMLGregorianCalendar date, String dateName, String dateType
+            String result, String dateValue, String dateName, String dateType
     );
 
+    /**
+     * Adds a CdmDate for the given flight leg time when the flight leg carries it.
+     *
+     * @param cdmDateList       the list to add to.
+     * @param flightLegSnapshot the flight leg details.
+     * @param legTime           the flight leg time.
+     * @param result            the context result.
+     * @param dateName          the name of the date.
+     */
+    private void addCdmDate(List<CDMFlightInfoType.Dates.CdmDate> cdmDateList, FlightLegSnapshot flightLegSnapshot,
+                            LegTime legTime, String result, String dateName) {
+        if (flightLegSnapshot.hasTime(legTime)) {
+            cdmDateList.add(populateCdmDate(result, formatDateAndTime(flightLegSnapshot, legTime), dateName, DATE));
+        }
+    }
+
     /**
      * Maps the flight leg to a list of CdmDate objects by extracting relevant date attributes.
      *
-     * @param flightLeg the flight leg details.
-     * @param result    the context result.
+     * @param flightLegSnapshot the flight leg details.
+     * @param result            the context result.
      * @return a list of CdmDate objects.
      */
-    default List<CDMFlightInfoType.Dates.CdmDate> mapToCdmDate(FlightLeg flightLeg, String result) {
+    default List<CDMFlightInfoType.Dates.CdmDate> mapToCdmDate(FlightLegSnapshot flightLegSnapshot, String result) {
         List<CDMFlightInfoType.Dates.CdmDate> cdmDateList = new ArrayList<>();
-
-        XMLGregorianCalendar aldt = Optional.ofNullable(flightLeg)
-                .map(FlightLeg::getDeparture)
-                .map(Departure::getTimes)
-                .map(Times::getActualTouchDownTime)
-                .orElse(null);
-
-        XMLGregorianCalendar eldt = Optional.ofNullable(flightLeg)
-                .map(FlightLeg::getDeparture)
-                .map(Departure::getTimes)
-                .map(Times::getEstimatedTouchDownTime)
-                .orElse(null);
-
-        XMLGregorianCalendar sobt = Optional.ofNullable(flightLeg)
-                .map(FlightLeg::getDeparture)
-                .map(Departure::getTimes)
-                .map(Times::getScheduledDateTime)
-                .orElse(null);
-
-        XMLGregorianCalendar aobt = Optional.ofNullable(flightLeg)
-                .map(FlightLeg::getDeparture)
-                .map(Departure::getTimes)
-                .map(Times::getActualDateTime)
-                .orElse(null);
-
-        XMLGregorianCalendar atot = Optional.ofNullable(flightLeg)
-                .map(FlightLeg::getDeparture)
-                .map(Departure::getTimes)
-                .map(Times::getActualTakeOffTime)
-                .orElse(null);
-
-        XMLGregorianCalendar eobt = Optional.ofNullable(flightLeg)
-                .map(FlightLeg::getDeparture)
-                .map(Departure::getTimes)
-                .map(Times::getEstimatedDateTimeInternal)
-                .orElse(null);
-
-        XMLGregorianCalendar sibt = Optional.ofNullable(flightLeg)
-                .map(FlightLeg::getArrival)
-                .map(Arrival::getTimes)
-                .map(Times::getScheduledDateTime)
-                .orElse(null);
-
-        XMLGregorianCalendar eibt = Optional.ofNullable(flightLeg)
-                .map(FlightLeg::getArrival)
-                .map(Arrival::getTimes)
-                .map(Times::getEstimatedDateTime)
-                .orElse(null);
-
-        XMLGregorianCalendar aibt = Optional.ofNullable(flightLeg)
-                .map(FlightLeg::getArrival)
-                .map(Arrival::getTimes)
-                .map(Times::getActualDateTime)
-                .orElse(null);
-
-        String arrivalAirportCode = Optional.ofNullable(flightLeg)
-                .map(FlightLeg::getArrival)
-                .map(Arrival::getAirport)
-                .map(Airport::getCode)
-                .orElse(null);
-
-        String departureAirportCode = Optional.ofNullable(flightLeg)
-                .map(FlightLeg::getDeparture)
-                .map(Departure::getAirport)
-                .map(Airport::getCode)
-                .orElse(null);
+        String arrivalAirportCode = flightLegSnapshot.getArrivalAirportCode();
+        String departureAirportCode = flightLegSnapshot.getDepartureAirportCode();
 
         boolean isArrivalAMS = arrivalAirportCode != null && !arrivalAirportCode.equals(AMS);
         boolean isDepartureAMS = departureAirportCode != null && !departureAirportCode.equals(AMS);
 
-        if (sibt != null && isArrivalAMS) {
-            cdmDateList.add(populateCdmDate(result, sibt, SIBT, DATE));
+        if (isArrivalAMS) {
+            addCdmDate(cdmDateList, flightLegSnapshot, LegTime.ARRIVAL_SCHEDULED, result, SIBT);
+            addCdmDate(cdmDateList, flightLegSnapshot, LegTime.ARRIVAL_ESTIMATED, result, EIBT);
+            addCdmDate(cdmDateList, flightLegSnapshot, LegTime.ARRIVAL_ACTUAL, result, AIBT);
         }
-        if (eibt != null && isArrivalAMS) {
-            cdmDateList.add(populateCdmDate(result, eibt, EIBT, DATE));
-        }
-        if (aibt != null && isArrivalAMS) {
-            cdmDateList.add(populateCdmDate(result, aibt, AIBT, DATE));
-        }
-        if (aldt != null && isDepartureAMS) {
-            cdmDateList.add(populateCdmDate(result, aldt, ALDT, DATE));
-        }
-        if (eldt != null && isDepartureAMS) {
-            cdmDateList.add(populateCdmDate(result, eldt, ETDT, DATE));
-        }
-        if (sobt != null && isDepartureAMS) {
-            cdmDateList.add(populateCdmDate(result, sobt, SOBT, DATE));
-        }
-        if (aobt != null && isDepartureAMS) {
-            cdmDateList.add(populateCdmDate(result, aobt, AOBT, DATE));
-        }
-        if (atot != null && isDepartureAMS) {
-            cdmDateList.add(populateCdmDate(result, atot, ATOT, DATE));
-        }
-        if (eobt != null && isDepartureAMS) {
-            cdmDateList.add(populateCdmDate(result, eobt, EOBT, DATE));
+        if (isDepartureAMS) {
+            addCdmDate(cdmDateList, flightLegSnapshot, LegTime.DEPARTURE_ACTUAL_TOUCH_DOWN, result, ALDT);
+            addCdmDate(cdmDateList, flightLegSnapshot, LegTime.DEPARTURE_ESTIMATED_TOUCH_DOWN, result, ETDT);
+            addCdmDate(cdmDateList, flightLegSnapshot, LegTime.DEPARTURE_SCHEDULED, result, SOBT);
+            addCdmDate(cdmDateList, flightLegSnapshot, LegTime.DEPARTURE_ACTUAL, result, AOBT);
+            addCdmDate(cdmDateList, flightLegSnapshot, LegTime.DEPARTURE_ACTUAL_TAKE_OFF, result, ATOT);
+            addCdmDate(cdmDateList, flightLegSnapshot, LegTime.DEPARTURE_ESTIMATED_INTERNAL, result, EOBT);
         }
         return cdmDateList;
     }
@@ -269,31 +204,14 @@ public interface CDMByKLMapper {
     /**
      * Maps operational flight and arrival airport details to a Dates object if conditions are met.
      *
-     * @param event  the operational flight event.
-     * @param result the context result.
+     * @param flightLegSnapshot the flight leg details.
+     * @param result            the context result.
      * @return the mapped JAXBElement of Dates or null if no mapping occurs.
      */
-    default JAXBElement<CDMFlightInfoType.Dates> mapToDates(
-            SendOperationalFlightInternalEvent event, String result) {
+    default JAXBElement<CDMFlightInfoType.Dates> mapToDates(FlightLegSnapshot flightLegSnapshot, String result) {
         CDMFlightInfoType.Dates dates;
-        String arrivalAirportCode = Optional.ofNullable(event)
-                .map(SendOperationalFlightInternalEvent::getOperationalFlight)
-                .map(OperationalFlight::getFlightleg)
-                .map(flightLegList -> flightLegList.get(0))
-                .map(FlightLeg::getArrival)
-                .map(Arrival::getAirport)
-                .map(Airport::getCode)
-                .orElse(null);
-        String departureAirportCode = Optional.ofNullable(event)
-                .map(SendOperationalFlightInternalEvent::getOperationalFlight)
-                .map(OperationalFlight::getFlightleg)
-                .map(flightLegList -> flightLegList.get(0))
-                .map(FlightLeg::getDeparture)
-                .map(Departure::getAirport)
-                .map(Airport::getCode)
-                .orElse(null);
-        if (arrivalAirportCode != null || departureAirportCode != null) {
-            dates = populateDates(event.getOperationalFlight().getFlightleg().get(0), result);
+        if (flightLegSnapshot.getArrivalAirportCode() != null || flightLegSnapshot.getDepartureAirportCode() != null) {
+            dates = populateDates(flightLegSnapshot, result);
         } else {
             dates = null;
         }
@@ -305,34 +223,23 @@ public interface CDMByKLMapper {
     }
 
     /**
-     * Maps the operational flight and flight leg details to a FlightIDType object.
+     * Maps the flight leg snapshot to a FlightIDType object.
      *
-     * @param sendOperationalFlightInternalEvent the operational flight event.
-     * @param flightLeg                          the flight leg details.
+     * @param flightLegSnapshot the flight leg details.
      * @return the mapped FlightIDType object.
      */
-    @Mapping(target = "airline.value",
-            source = "sendOperationalFlightInternalEvent.operationalFlight.flightIdentifier.airlineCode")
-    @Mapping(target = "airline.codeContext",
-            source = "sendOperationalFlightInternalEvent.operationalFlight.flightIdentifier.airlineCode",
-            qualifiedByName = "mapCodeContext")
-    @Mapping(target = "flightNumber",
-            source = "sendOperationalFlightInternalEvent.operationalFlight.flightIdentifier.flightNumber",
-            qualifiedByName = "normalizeFlightNumber")
-    @Mapping(target = "flightDate.value",
-            source = "sendOperationalFlightInternalEvent.operationalFlight.flightIdentifier.scheduledDate",
-            qualifiedByName = "formatDateAndTimes")
+    @Mapping(target = "airline.value", source = "airlineCode")
+    @Mapping(target = "airline.codeContext", source = "airlineCode", qualifiedByName = "mapCodeContext")
+    @Mapping(target = "flightNumber", source = "flightNumber", qualifiedByName = "normalizeFlightNumber")
+    @Mapping(target = "flightDate.value", source = "scheduledDate", qualifiedByName = "formatDateAndTimes")
     @Mapping(target = "flightDate.dateID", constant = IOBT)
-    @Mapping(target = "arrivalAirport.value", source = "flightLeg.arrival.airport.code")
-    @Mapping(target = "arrivalAirport.codeContext", source = "flightLeg.arrival.airport.code",
-            qualifiedByName = "mapCodeContext")
-    @Mapping(target = "departureAirport.value", source = "flightLeg.departure.airport.code")
-    @Mapping(target = "departureAirport.codeContext", source = "flightLeg.departure.airport.code",
+    @Mapping(target = "arrivalAirport.value", source = "arrivalAirportCode")
+    @Mapping(target = "arrivalAirport.codeContext", source = "arrivalAirportCode", qualifiedByName = "mapCodeContext")
+    @Mapping(target = "departureAirport.value", source = "departureAirportCode")
+    @Mapping(target = "departureAirport.codeContext", source = "departureAirportCode",
             qualifiedByName = "mapCodeContext")
     @Mapping(target = "departureAirport.messageIssued", expression = "java(mapMessageIssued())")
-    FlightIDType mapToFlightIDType(
-            SendOperationalFlightInternalEvent sendOperationalFlightInternalEvent, FlightLeg flightLeg
-    );
+    FlightIDType mapToFlightIDType(FlightLegSnapshot flightLegSnapshot);
 
     default boolean mapMessageIssued() {
         return true;
@@ -344,15 +251,14 @@ public interface CDMByKLMapper {
     }
 
     /**
-     * Maps the operational flight event to a FlightIDType object by using the first flight leg.
+     * Maps the flight leg snapshot to the airport slot FlightIDType object.
      *
-     * @param sendOperationalFlightInternalEvent the operational flight event.
+     * @param flightLegSnapshot the flight leg details.
      * @return the mapped FlightIDType object.
      */
     @Named("mapAirportSlot")
-    default FlightIDType mapAirportSlot(SendOperationalFlightInternalEvent sendOperationalFlightInternalEvent) {
-        return mapToFlightIDType(sendOperationalFlightInternalEvent,
-                sendOperationalFlightInternalEvent.getOperationalFlight().getFlightleg().get(0));
+    default FlightIDType mapAirportSlot(FlightLegSnapshot flightLegSnapshot) {
+        return mapToFlightIDType(flightLegSnapshot);
     }
 
     /**
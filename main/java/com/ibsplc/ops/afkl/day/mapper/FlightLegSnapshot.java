@@ -0,0 +1,194 @@
+package com.ibsplc.ops.afkl.day.mapper;
+
+import com.ibsplc.ops.afkl.day.enums.LegTime;
+import com.ibsplc.ops.afkl.day.enums.TimeFormat;
+import com.ibsplc.ops.afkl.day.util.DateTimeFormatUtil;
+import com.ibsplc.ops.afkl.day.util.TimeFormatMemo;
+import com.ibsplc.si.event.schema.sofi.Arrival;
+import com.ibsplc.si.event.schema.sofi.Departure;
+import com.ibsplc.si.event.schema.sofi.FlightHandlingTimes;
+import com.ibsplc.si.event.schema.sofi.FlightIdentifier;
+import com.ibsplc.si.event.schema.sofi.FlightLeg;
+import com.ibsplc.si.event.schema.sofi.Location;
+import com.ibsplc.si.event.schema.sofi.OperationalFlight;
+import com.ibsplc.si.event.schema.sofi.SendOperationalFlightInternalEvent;
+import com.ibsplc.si.event.schema.sofi.Times;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Every field of a SOFI flight leg read by the AIDX and CDM mappers, extracted in one pass so that the mappers of a
+ * message share it instead of walking the event again for each field.
+ *
+ * <p>The flight leg times are kept as epoch milliseconds with the offset of the original value, indexed by
+ * {@link LegTime}. Their formatted values are memoized for the life of the snapshot, which is not thread safe.
+ */
+@Getter
+public final class FlightLegSnapshot {
+
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    private final XMLGregorianCalendar messageTimeStamp;
+    private final String airlineCode;
+    private final String flightNumber;
+    private final String operationalSuffix;
+    private final XMLGregorianCalendar scheduledDate;
+    private final String departureAirportCode;
+    private final String departureParkingPosition;
+    private final String departureGateCode;
+    private final String takeOffRunwayCode;
+    private final String arrivalAirportCode;
+    private final String arrivalParkingPosition;
+    private final String arrivalGateCode;
+    private final String landingRunwayCode;
+    @Getter(AccessLevel.NONE)
+    private final long[] epochMillis = new long[LegTime.values().length];
+    @Getter(AccessLevel.NONE)
+    private final int[] offsetSeconds = new int[LegTime.values().length];
+    @Getter(AccessLevel.NONE)
+    private final TimeFormatMemo timeFormatMemo = new TimeFormatMemo();
+
+    private FlightLegSnapshot(SendOperationalFlightInternalEvent event, FlightLeg flightLeg) {
+        Arrays.fill(epochMillis, NO_TIME);
+        messageTimeStamp = event.getMessageTimeStamp();
+        OperationalFlight operationalFlight = event.getOperationalFlight();
+        FlightIdentifier flightIdentifier = operationalFlight != null ? operationalFlight.getFlightIdentifier() : null;
+        airlineCode = flightIdentifier != null ? flightIdentifier.getAirlineCode() : null;
+        flightNumber = flightIdentifier != null ? flightIdentifier.getFlightNumber() : null;
+        operationalSuffix = flightIdentifier != null ? flightIdentifier.getOperationalSuffix() : null;
+        scheduledDate = flightIdentifier != null ? flightIdentifier.getScheduledDate() : null;
+
+        Departure departure = flightLeg != null ? flightLeg.getDeparture() : null;
+        if (departure != null) {
+            departureAirportCode = departure.getAirport() != null ? departure.getAirport().getCode() : null;
+            departureParkingPosition = departure.getParkingPosition() != null
+                    ? departure.getParkingPosition().getCode() : null;
+            departureGateCode = departure.getBoarding() != null ? firstGateCode(departure.getBoarding().getLocation())
+                    : null;
+            takeOffRunwayCode = departure.getTakeOffRunwayCode();
+            FlightHandlingTimes flightHandlingTimes = departure.getFlightHandlingTimes();
+            if (flightHandlingTimes != null) {
+                setTime(LegTime.DEPARTURE_TARGET_TAKE_OFF, flightHandlingTimes.getTargetTakeOffTime());
+                setTime(LegTime.DEPARTURE_ACTUAL_STARTUP_REQUEST, flightHandlingTimes.getActualStartupRequestTime());
+            }
+            Times times = departure.getTimes();
+            if (times != null) {
+                setTime(LegTime.DEPARTURE_TARGET_STARTUP_APPROVAL, times.getTargetStartupApprovalTime());
+                setTime(LegTime.DEPARTURE_TARGET_OFF_BLOCK, times.getTargetOffBlockTime());
+                setTime(LegTime.DEPARTURE_ACTUAL_TOUCH_DOWN, times.getActualTouchDownTime());
+                setTime(LegTime.DEPARTURE_ESTIMATED_TOUCH_DOWN, times.getEstimatedTouchDownTime());
+                setTime(LegTime.DEPARTURE_SCHEDULED, times.getScheduledDateTime());
+                setTime(LegTime.DEPARTURE_ACTUAL, times.getActualDateTime());
+                setTime(LegTime.DEPARTURE_ACTUAL_TAKE_OFF, times.getActualTakeOffTime());
+                setTime(LegTime.DEPARTURE_ESTIMATED_INTERNAL, times.getEstimatedDateTimeInternal());
+            }
+        } else {
+            departureAirportCode = null;
+            departureParkingPosition = null;
+            departureGateCode = null;
+            takeOffRunwayCode = null;
+        }
+
+        Arrival arrival = flightLeg != null ? flightLeg.getArrival() : null;
+        if (arrival != null) {
+            arrivalAirportCode = arrival.getAirport() != null ? arrival.getAirport().getCode() : null;
+            arrivalParkingPosition = arrival.getParkingPosition() != null
+                    ? arrival.getParkingPosition().getCode() : null;
+            arrivalGateCode = arrival.getDisembarking() != null
+                    ? firstGateCode(arrival.getDisembarking().getLocation()) : null;
+            landingRunwayCode = arrival.getLandingRunwayCode();
+            Times times = arrival.getTimes();
+            if (times != null) {
+                setTime(LegTime.ARRIVAL_SCHEDULED, times.getScheduledDateTime());
+                setTime(LegTime.ARRIVAL_ESTIMATED, times.getEstimatedDateTime());
+                setTime(LegTime.ARRIVAL_ACTUAL, times.getActualDateTime());
+            }
+        } else {
+            arrivalAirportCode = null;
+            arrivalParkingPosition = null;
+            arrivalGateCode = null;
+            landingRunwayCode = null;
+        }
+    }
+
+    /**
+     * Extracts the snapshot of the first flight leg of the event
+     *
+     * @param event the event
+     * @return the snapshot
+     */
+    public static FlightLegSnapshot of(SendOperationalFlightInternalEvent event) {
+        return of(event, event.getOperationalFlight().getFlightleg().get(0));
+    }
+
+    /**
+     * Extracts the snapshots of all the flight legs of the event
+     *
+     * @param event the event
+     * @return the snapshots in flight leg order
+     */
+    public static List<FlightLegSnapshot> ofAll(SendOperationalFlightInternalEvent event) {
+        List<FlightLeg> flightLegs = event.getOperationalFlight() != null
+                ? event.getOperationalFlight().getFlightleg() : List.of();
+        List<FlightLegSnapshot> flightLegSnapshots = new ArrayList<>(flightLegs.size());
+        for (FlightLeg flightLeg : flightLegs) {
+            flightLegSnapshots.add(of(event, flightLeg));
+        }
+        return flightLegSnapshots;
+    }
+
+    /**
+     * Extracts the snapshot of a flight leg of the event
+     *
+     * @param event     the event
+     * @param flightLeg the flight leg
+     * @return the snapshot
+     */
+    public static FlightLegSnapshot of(SendOperationalFlightInternalEvent event, FlightLeg flightLeg) {
+        return new FlightLegSnapshot(event, flightLeg);
+    }
+
+    public boolean hasTime(LegTime legTime) {
+        return epochMillis[legTime.ordinal()] != NO_TIME;
+    }
+
+    public long getEpochMillis(LegTime legTime) {
+        return epochMillis[legTime.ordinal()];
+    }
+
+    /**
+     * @return the time in the offset of the original value, as the mappers format it
+     */
+    public LocalDateTime getLocalDateTime(LegTime legTime) {
+        return DateTimeFormatUtil.toLocalDateTime(epochMillis[legTime.ordinal()], offsetSeconds[legTime.ordinal()]);
+    }
+
+    /**
+     * @return the time in the offset of the original value, formatted
+     */
+    public String format(LegTime legTime, TimeFormat timeFormat) {
+        return timeFormatMemo.format(epochMillis[legTime.ordinal()], offsetSeconds[legTime.ordinal()], timeFormat);
+    }
+
+    private void setTime(LegTime legTime, XMLGregorianCalendar value) {
+        if (value != null) {
+            LocalDateTime localDateTime = DateTimeFormatUtil.toLocalDateTime(value);
+            int offset = DateTimeFormatUtil.getOffsetSeconds(value, localDateTime);
+            epochMillis[legTime.ordinal()] = localDateTime.toEpochSecond(ZoneOffset.ofTotalSeconds(offset)) * 1000L
+                    + localDateTime.getNano() / 1_000_000;
+            offsetSeconds[legTime.ordinal()] = offset;
+        }
+    }
+
+    private static String firstGateCode(Location location) {
+        List<String> gateCodes = location != null ? location.getGateCode() : null;
+        return gateCodes != null && !gateCodes.isEmpty() ? gateCodes.get(0) : null;
+    }
+}
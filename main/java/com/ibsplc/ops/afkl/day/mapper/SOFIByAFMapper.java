@@ -1,17 +1,10 @@
 package com.ibsplc.ops.afkl.day.mapper;
 
+import com.ibsplc.ops.afkl.day.util.MessageIdUtil;
 import com.ibsplc.si.event.schema.flightleg.notification.DepartureArrivalType;
 import com.ibsplc.si.event.schema.flightleg.notification.FlightLegType;
 import com.ibsplc.si.event.schema.flightleg.notification.IATAAIDXFlightLegNotifRQ;
 import com.ibsplc.si.event.schema.flightleg.notification.UsageType;
-import com.ibsplc.si.event.schema.sofi.Arrival;
-import com.ibsplc.si.event.schema.sofi.Boarding;
-import com.ibsplc.si.event.schema.sofi.Departure;
-import com.ibsplc.si.event.schema.sofi.Disembarking;
-import com.ibsplc.si.event.schema.sofi.FlightLeg;
-import com.ibsplc.si.event.schema.sofi.Location;
-import com.ibsplc.si.event.schema.sofi.ParkingPosition;
-import com.ibsplc.si.event.schema.sofi.SendOperationalFlightInternalEvent;
 import com.ibsplc.si.event.schema.sofi.SoapHeader;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -29,7 +22,6 @@ import java.util.Optional;
 import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.AIRCRAFT_PARKING_POSITION;
 import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.AIRCRAFT_SUB_TYPE;
 import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.CODE_CONTEXT;
-import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.COLON;
 import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.DEPARTURE;
 import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.NAMESPACE_URI;
 import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.PUBLIC;
@@ -45,20 +37,33 @@ public interface SOFIByAFMapper {
     SOFIByAFMapper INSTANCE = Mappers.getMapper(SOFIByAFMapper.class);
 
     /**
-     * Maps a SendOperationalFlightInternalEvent to an IATAAIDXFlightLegNotifRQ object, including flight leg details,
+     * Maps a flight leg snapshot to an IATAAIDXFlightLegNotifRQ object, including flight leg details,
      * timestamp, and originator.
      *
-     * @param sendOperationalFlightInternalEvent source Object
+     * @param flightLegSnapshot source Object
+     * @return IATAAIDXFlightLegNotifRQ target Object
+     */
+    default IATAAIDXFlightLegNotifRQ mapToIATAAIDXFlightLegNotifRQ(
+            FlightLegSnapshot flightLegSnapshot, SoapHeader soapHeader
+    ) {
+        return mapToIATAAIDXFlightLegNotifRQ(flightLegSnapshot, soapHeader, populateFlightLegs(flightLegSnapshot));
+    }
+
+    /**
+     * Maps already mapped flight legs to an IATAAIDXFlightLegNotifRQ object, with the timestamp of the event and
+     * the originator.
+     *
+     * @param flightLegSnapshot any flight leg snapshot of the event, for the event level fields
+     * @param flightLegs        the mapped flight legs
      * @return IATAAIDXFlightLegNotifRQ target Object
      */
     @Mapping(target = "version", expression = "java(mapVersion())")
-    @Mapping(target = "flightLeg",
-            expression = "java(populateFlightLegs(sendOperationalFlightInternalEvent))")
-    @Mapping(target = "timeStamp", source = "sendOperationalFlightInternalEvent.messageTimeStamp")
+    @Mapping(target = "flightLeg", source = "flightLegs")
+    @Mapping(target = "timeStamp", source = "flightLegSnapshot.messageTimeStamp")
     @Mapping(target = "originator.companyShortName", constant = SOFI)
     @Mapping(target = "transactionIdentifier", source = "soapHeader.messageID", qualifiedByName = "determineMessageId")
     IATAAIDXFlightLegNotifRQ mapToIATAAIDXFlightLegNotifRQ(
-            SendOperationalFlightInternalEvent sendOperationalFlightInternalEvent, SoapHeader soapHeader
+            FlightLegSnapshot flightLegSnapshot, SoapHeader soapHeader, List<FlightLegType> flightLegs
     );
 
     /**
@@ -69,10 +74,7 @@ public interface SOFIByAFMapper {
      */
     @Named("determineMessageId")
     default String determineMessageId(String messageId) {
-        return Optional.ofNullable(messageId)
-                .map(id -> id.substring(messageId.indexOf(COLON) + 1, messageId.length())
-                        .replaceAll("-", "").trim())
-                .orElse(null);
+        return MessageIdUtil.normalizeMessageId(messageId);
     }
 
     /**
@@ -83,40 +85,32 @@ public interface SOFIByAFMapper {
     }
 
     /**
-     * Maps a SendOperationalFlightInternalEvent & flightLeg to an FlightLegType object, including legIdentifier,
-     * legData.
+     * Maps a flight leg snapshot to an FlightLegType object, including legIdentifier, legData.
      *
-     * @param sendOperationalFlightInternalEvent source Object
-     * @param flightLeg
+     * @param flightLegSnapshot source Object
      * @return FlightLegType target Object
      */
-    @Mapping(target = "legIdentifier.airline.value",
-            source = "sendOperationalFlightInternalEvent.operationalFlight.flightIdentifier.airlineCode")
+    @Mapping(target = "legIdentifier.airline.value", source = "airlineCode")
     @Mapping(target = "legIdentifier.airline.codeContext", constant = CODE_CONTEXT)
-    @Mapping(target = "legIdentifier.flightNumber", source = "sendOperationalFlightInternalEvent.operationalFlight" +
-            ".flightIdentifier.flightNumber", qualifiedByName = "normalizeFlightNumber")
-    @Mapping(target = "legIdentifier.operationalSuffix", source = "sendOperationalFlightInternalEvent.operationalFlight" +
-            ".flightIdentifier.operationalSuffix")
-    @Mapping(target = "legIdentifier.departureAirport.value", source = "flightLeg.departure.airport.code")
+    @Mapping(target = "legIdentifier.flightNumber", source = "flightNumber", qualifiedByName = "normalizeFlightNumber")
+    @Mapping(target = "legIdentifier.operationalSuffix", source = "operationalSuffix")
+    @Mapping(target = "legIdentifier.departureAirport.value", source = "departureAirportCode")
     @Mapping(target = "legIdentifier.departureAirport.codeContext", constant = CODE_CONTEXT)
-    @Mapping(target = "legIdentifier.arrivalAirport.value", source = "flightLeg.arrival.airport.code")
+    @Mapping(target = "legIdentifier.arrivalAirport.value", source = "arrivalAirportCode")
     @Mapping(target = "legIdentifier.arrivalAirport.codeContext", constant = CODE_CONTEXT)
-    @Mapping(target = "legIdentifier.originDate",
-            source = "sendOperationalFlightInternalEvent.operationalFlight.flightIdentifier.scheduledDate")
-    @Mapping(target = "legData.airportResources", source = "flightLeg", qualifiedByName = "mapAirportResources")
-    FlightLegType populateFlightLeg(
-            SendOperationalFlightInternalEvent sendOperationalFlightInternalEvent, FlightLeg flightLeg
-    );
+    @Mapping(target = "legIdentifier.originDate", source = "scheduledDate")
+    @Mapping(target = "legData.airportResources", source = "flightLegSnapshot", qualifiedByName = "mapAirportResources")
+    FlightLegType populateFlightLeg(FlightLegSnapshot flightLegSnapshot);
     
     /**
-     * Maps a flightLeg to an AirportResources object
+     * Maps a flight leg snapshot to an AirportResources object
      *
-     * @param flightLeg source Object
+     * @param flightLegSnapshot source Object
      * @return AirportResources target Object
      */
-    @Mapping(target = "resource", source = "flightLeg", qualifiedByName = "mapResource")
+    @Mapping(target = "resource", source = "flightLegSnapshot", qualifiedByName = "mapResource")
     @Mapping(target = "usage", expression = "java(mapUsage())")
-    FlightLegType.LegData.AirportResources populateAirportResources(FlightLeg flightLeg);
+    FlightLegType.LegData.AirportResources populateAirportResources(FlightLegSnapshot flightLegSnapshot);
 
     /**
      * Returns an enum UsageType.
@@ -126,15 +120,17 @@ public interface SOFIByAFMapper {
     }
 
     /**
-     * Maps a flightLeg & departureOrArrival to a Resource object
+     * Maps a flight leg snapshot & departureOrArrival to a Resource object
      *
-     * @param flightLeg source Object
+     * @param flightLegSnapshot source Object
      * @return Resource target Object
      */
-    @Mapping(target = "passengerGate", expression = "java(mapPassengerGate(flightLeg,departureOrArrival))")
-    @Mapping(target = "aircraftParkingPosition", expression = "java(mapAircraftParkingPosition(flightLeg,departureOrArrival))")
+    @Mapping(target = "passengerGate", expression = "java(mapPassengerGate(flightLegSnapshot,departureOrArrival))")
+    @Mapping(target = "aircraftParkingPosition",
+            expression = "java(mapAircraftParkingPosition(flightLegSnapshot,departureOrArrival))")
     @Mapping(target = "departureOrArrival", source = "departureOrArrival", qualifiedByName = "mapDepartureOrArrival")
-    FlightLegType.LegData.AirportResources.Resource populateResource(FlightLeg flightLeg, String departureOrArrival);
+    FlightLegType.LegData.AirportResources.Resource populateResource(FlightLegSnapshot flightLegSnapshot,
+                                                                     String departureOrArrival);
 
     /**
      * Maps a code to an PassengerGate object
@@ -147,34 +143,16 @@ public interface SOFIByAFMapper {
     FlightLegType.LegData.AirportResources.Resource.PassengerGate populatePassengerGate(String code);
 
     /**
-     * Maps a flightLeg to a list of PassengerGate
+     * Maps a flight leg snapshot to a list of PassengerGate
      *
-     * @param flightLeg & departureOrArrival source Object
+     * @param flightLegSnapshot & departureOrArrival source Object
      * @return list of PassengerGate target Object
      */
     default List<FlightLegType.LegData.AirportResources.Resource.PassengerGate> mapPassengerGate(
-            FlightLeg flightLeg, String departureOrArrival) {
+            FlightLegSnapshot flightLegSnapshot, String departureOrArrival) {
         List<FlightLegType.LegData.AirportResources.Resource.PassengerGate> passengerGateList = new ArrayList<>();
-        String gateCode;
-        if (departureOrArrival.equals(DEPARTURE)) {
-            gateCode = Optional.ofNullable(flightLeg)
-                    .map(FlightLeg::getDeparture)
-                    .map(Departure::getBoarding)
-                    .map(Boarding::getLocation)
-                    .map(Location::getGateCode)
-                    .filter(gateCodes -> !gateCodes.isEmpty())
-                    .map(gateCodes -> gateCodes.get(0))
-                    .orElse(null);
-        } else {
-            gateCode = Optional.ofNullable(flightLeg)
-                    .map(FlightLeg::getArrival)
-                    .map(Arrival::getDisembarking)
-                    .map(Disembarking::getLocation)
-                    .map(Location::getGateCode)
-                    .filter(gateCodes -> !gateCodes.isEmpty())
-                    .map(gateCodes -> gateCodes.get(0))
-                    .orElse(null);
-        }
+        String gateCode = departureOrArrival.equals(DEPARTURE) ? flightLegSnapshot.getDepartureGateCode()
+                : flightLegSnapshot.getArrivalGateCode();
         if (gateCode != null && !gateCode.isEmpty()) {
             passengerGateList.add(populatePassengerGate(gateCode));
         }
@@ -195,40 +173,28 @@ public interface SOFIByAFMapper {
     /**
      * This method is used to get the AircraftParkingPositionValue(
      *
-     * @param flightLeg & departureOrArrival source Object
+     * @param flightLegSnapshot & departureOrArrival source Object
      * @return String
      */
-    default String getAircraftParkingPositionValue(String departureOrArrival, FlightLeg flightLeg) {
-        return departureOrArrival.equals(DEPARTURE) ?
-                Optional.ofNullable(flightLeg)
-                        .map(FlightLeg::getDeparture)
-                        .map(Departure::getParkingPosition)
-                        .map(ParkingPosition::getCode)
-                        .orElse(null) :
-                Optional.ofNullable(flightLeg)
-                        .map(FlightLeg::getArrival)
-                        .map(Arrival::getParkingPosition)
-                        .map(ParkingPosition::getCode)
-                        .orElse(null);
+    default String getAircraftParkingPositionValue(String departureOrArrival, FlightLegSnapshot flightLegSnapshot) {
+        return departureOrArrival.equals(DEPARTURE) ? flightLegSnapshot.getDepartureParkingPosition()
+                : flightLegSnapshot.getArrivalParkingPosition();
     }
 
     /**
-     * Maps a flightLeg to a list of AircraftParkingPosition.
+     * Maps a flight leg snapshot to a list of AircraftParkingPosition.
      *
-     * @param flightLeg & departureOrArrival source Object
+     * @param flightLegSnapshot & departureOrArrival source Object
      * @return JAXBElement of AircraftParkingPosition
      */
     default JAXBElement<FlightLegType.LegData.AirportResources.Resource.AircraftParkingPosition> mapAircraftParkingPosition(
-            FlightLeg flightLeg, String departureOrArrival) {
-        String aircraftParkingPositionValue = getAircraftParkingPositionValue(departureOrArrival, flightLeg);
+            FlightLegSnapshot flightLegSnapshot, String departureOrArrival) {
+        String aircraftParkingPositionValue = getAircraftParkingPositionValue(departureOrArrival, flightLegSnapshot);
         if (aircraftParkingPositionValue != null) {
-            return Optional.ofNullable(flightLeg)
-                    .map(qualifier -> new JAXBElement<>(
-                            new QName(NAMESPACE_URI, AIRCRAFT_PARKING_POSITION),
-                            FlightLegType.LegData.AirportResources.Resource.AircraftParkingPosition.class,
-                            populateAircraftParkingPosition(aircraftParkingPositionValue))
-                    )
-                    .orElse(null);
+            return new JAXBElement<>(
+                    new QName(NAMESPACE_URI, AIRCRAFT_PARKING_POSITION),
+                    FlightLegType.LegData.AirportResources.Resource.AircraftParkingPosition.class,
+                    populateAircraftParkingPosition(aircraftParkingPositionValue));
         }
         return null;
     }
@@ -245,16 +211,16 @@ public interface SOFIByAFMapper {
     }
 
     /**
-     * Maps a flightLeg to a list of Resource.
+     * Maps a flight leg snapshot to a list of Resource.
      *
-     * @param flightLeg
+     * @param flightLegSnapshot
      * @return list of Resource
      */
     @Named("mapResource")
-    default List<FlightLegType.LegData.AirportResources.Resource> mapResource(FlightLeg flightLeg) {
+    default List<FlightLegType.LegData.AirportResources.Resource> mapResource(FlightLegSnapshot flightLegSnapshot) {
         List<FlightLegType.LegData.AirportResources.Resource> resourceList = new ArrayList<>();
         FlightLegType.LegData.AirportResources.Resource departureResource = populateResource(
-                flightLeg, DepartureArrivalType.DEPARTURE.value());
+                flightLegSnapshot, DepartureArrivalType.DEPARTURE.value());
         String aircraftParkingPosition = getAircraftParkingPosition(departureResource);
         String passengerGate = getPassengerGate(departureResource);
         String runWay = getRunWay(departureResource);
@@ -262,7 +228,7 @@ public interface SOFIByAFMapper {
             resourceList.add(departureResource);
         }
         FlightLegType.LegData.AirportResources.Resource arrivalResource = populateResource(
-                flightLeg, DepartureArrivalType.ARRIVAL.value());
+                flightLegSnapshot, DepartureArrivalType.ARRIVAL.value());
         String aircraftParkingPositionArrival = getAircraftParkingPosition(arrivalResource);
         String passengerGateArrival = getPassengerGate(arrivalResource);
         String runWayArrival = getRunWay(arrivalResource);
@@ -315,15 +281,15 @@ public interface SOFIByAFMapper {
     }
 
     /**
-     * Maps a flightLeg to a list of Resource.
+     * Maps a flight leg snapshot to a list of Resource.
      *
-     * @param flightLeg
+     * @param flightLegSnapshot
      * @return list of Resource
      */
     @Named("mapAirportResources")
-    default List<FlightLegType.LegData.AirportResources> mapAirportResources(FlightLeg flightLeg) {
+    default List<FlightLegType.LegData.AirportResources> mapAirportResources(FlightLegSnapshot flightLegSnapshot) {
         List<FlightLegType.LegData.AirportResources> airportResourcesList = new ArrayList<>();
-        FlightLegType.LegData.AirportResources airportResources = populateAirportResources(flightLeg);
+        FlightLegType.LegData.AirportResources airportResources = populateAirportResources(flightLegSnapshot);
         if (airportResources != null && airportResources.getResource() != null && !airportResources.getResource().isEmpty()) {
             airportResourcesList.add(airportResources);
         }
@@ -331,15 +297,13 @@ public interface SOFIByAFMapper {
     }
 
     /**
-     * Maps a flightLeg to a list of flightLegType.
+     * Maps a flight leg snapshot to a list of flightLegType.
      *
-     * @param sendOperationalFlightInternalEvent
+     * @param flightLegSnapshot
      * @return list of flightLegType
      */
-    default List<FlightLegType> populateFlightLegs(SendOperationalFlightInternalEvent sendOperationalFlightInternalEvent) {
-        return List.of(populateFlightLeg(sendOperationalFlightInternalEvent,
-                sendOperationalFlightInternalEvent.getOperationalFlight().getFlightleg().get(0))
-        );
+    default List<FlightLegType> populateFlightLegs(FlightLegSnapshot flightLegSnapshot) {
+        return List.of(populateFlightLeg(flightLegSnapshot));
     }
 
     /**
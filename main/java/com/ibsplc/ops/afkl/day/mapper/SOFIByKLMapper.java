@@ -1,21 +1,13 @@
 package com.ibsplc.ops.afkl.day.mapper;
 
+import com.ibsplc.ops.afkl.day.enums.LegTime;
+import com.ibsplc.ops.afkl.day.enums.TimeFormat;
+import com.ibsplc.ops.afkl.day.util.MessageIdUtil;
 import com.ibsplc.si.event.schema.flightleg.notification.DepartureArrivalType;
 import com.ibsplc.si.event.schema.flightleg.notification.FlightLegType;
 import com.ibsplc.si.event.schema.flightleg.notification.IATAAIDXFlightLegNotifRQ;
 import com.ibsplc.si.event.schema.flightleg.notification.UsageType;
-import com.ibsplc.si.event.schema.sofi.Airport;
-import com.ibsplc.si.event.schema.sofi.Arrival;
-import com.ibsplc.si.event.schema.sofi.Boarding;
-import com.ibsplc.si.event.schema.sofi.Departure;
-import com.ibsplc.si.event.schema.sofi.Disembarking;
-import com.ibsplc.si.event.schema.sofi.FlightHandlingTimes;
-import com.ibsplc.si.event.schema.sofi.FlightLeg;
-import com.ibsplc.si.event.schema.sofi.Location;
-import com.ibsplc.si.event.schema.sofi.ParkingPosition;
-import com.ibsplc.si.event.schema.sofi.SendOperationalFlightInternalEvent;
 import com.ibsplc.si.event.schema.sofi.SoapHeader;
-import com.ibsplc.si.event.schema.sofi.Times;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
@@ -23,10 +15,8 @@ import org.mapstruct.ReportingPolicy;
 import org.mapstruct.factory.Mappers;
 
 import javax.xml.bind.JAXBElement;
-import javax.xml.datatype.XMLGregorianCalendar;
 import javax.xml.namespace.QName;
 import java.math.BigDecimal;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -35,12 +25,10 @@ import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.ACT;
 import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.AIRCRAFT_PARKING_POSITION;
 import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.AMS;
 import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.CODE_CONTEXT;
-import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.COLON;
 import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.DEPARTURE;
 import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.NAMESPACE_URI;
 import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.OFB;
 import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.OPERATION_TIME_CODE_CONTEXT;
-import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.OPERATION_TIME_DATE_TIME_FORMAT;
 import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.PUBLIC;
 import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.REPEAT_INDEX;
 import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.RUNWAY;
@@ -58,20 +46,33 @@ public interface SOFIByKLMapper {
     SOFIByKLMapper INSTANCE = Mappers.getMapper(SOFIByKLMapper.class);
 
     /**
-     * Maps a SendOperationalFlightInternalEvent to an IATAAIDXFlightLegNotifRQ object, including flight leg details,
+     * Maps a flight leg snapshot to an IATAAIDXFlightLegNotifRQ object, including flight leg details,
      * timestamp, and originator.
      *
-     * @param sendOperationalFlightInternalEvent source Object
+     * @param flightLegSnapshot source Object
+     * @return IATAAIDXFlightLegNotifRQ target Object
+     */
+    default IATAAIDXFlightLegNotifRQ mapToIATAAIDXFlightLegNotifRQ(
+            FlightLegSnapshot flightLegSnapshot, SoapHeader soapHeader
+    ) {
+        return mapToIATAAIDXFlightLegNotifRQ(flightLegSnapshot, soapHeader, populateFlightLegs(flightLegSnapshot));
+    }
+
+    /**
+     * Maps already mapped flight legs to an IATAAIDXFlightLegNotifRQ object, with the timestamp of the event and
+     * the originator.
+     *
+     * @param flightLegSnapshot any flight leg snapshot of the event, for the event level fields
+     * @param flightLegs        the mapped flight legs
      * @return IATAAIDXFlightLegNotifRQ target Object
      */
     @Mapping(target = "version", expression = "java(mapVersion())")
-    @Mapping(target = "flightLeg",
-            expression = "java(populateFlightLegs(sendOperationalFlightInternalEvent))")
-    @Mapping(target = "timeStamp", source = "sendOperationalFlightInternalEvent.messageTimeStamp")
+    @Mapping(target = "flightLeg", source = "flightLegs")
+    @Mapping(target = "timeStamp", source = "flightLegSnapshot.messageTimeStamp")
     @Mapping(target = "originator.companyShortName", constant = SOFI)
     @Mapping(target = "transactionIdentifier", source = "soapHeader.messageID", qualifiedByName = "determineMessageId")
     IATAAIDXFlightLegNotifRQ mapToIATAAIDXFlightLegNotifRQ(
-            SendOperationalFlightInternalEvent sendOperationalFlightInternalEvent, SoapHeader soapHeader
+            FlightLegSnapshot flightLegSnapshot, SoapHeader soapHeader, List<FlightLegType> flightLegs
     );
 
     /**
@@ -82,10 +83,7 @@ public interface SOFIByKLMapper {
      */
     @Named("determineMessageId")
     default String determineMessageId(String messageId) {
-        return Optional.ofNullable(messageId)
-                .map(id -> id.substring(messageId.indexOf(COLON) + 1, messageId.length())
-                        .replaceAll("-", "").trim())
-                .orElse(null);
+        return MessageIdUtil.normalizeMessageId(messageId);
     }
 
     /**
@@ -96,42 +94,33 @@ public interface SOFIByKLMapper {
     }
 
     /**
-     * Maps a SendOperationalFlightInternalEvent & flightLeg to an FlightLegType object, including legIdentifier,
-     * legData.
+     * Maps a flight leg snapshot to an FlightLegType object, including legIdentifier, legData.
      *
-     * @param sendOperationalFlightInternalEvent source Object
-     * @param flightLeg
+     * @param flightLegSnapshot source Object
      * @return FlightLegType target Object
      */
-    @Mapping(target = "legIdentifier.airline.value",
-            source = "sendOperationalFlightInternalEvent.operationalFlight.flightIdentifier.airlineCode")
+    @Mapping(target = "legIdentifier.airline.value", source = "airlineCode")
     @Mapping(target = "legIdentifier.airline.codeContext", constant = CODE_CONTEXT)
-    @Mapping(target = "legIdentifier.flightNumber", source = "sendOperationalFlightInternalEvent.operationalFlight" +
-            ".flightIdentifier.flightNumber", qualifiedByName = "normalizeFlightNumber")
-    @Mapping(target = "legIdentifier.operationalSuffix", source = "sendOperationalFlightInternalEvent.operationalFlight" +
-            ".flightIdentifier.operationalSuffix")
-    @Mapping(target = "legIdentifier.departureAirport.value", source = "flightLeg.departure.airport.code")
+    @Mapping(target = "legIdentifier.flightNumber", source = "flightNumber", qualifiedByName = "normalizeFlightNumber")
+    @Mapping(target = "legIdentifier.operationalSuffix", source = "operationalSuffix")
+    @Mapping(target = "legIdentifier.departureAirport.value", source = "departureAirportCode")
     @Mapping(target = "legIdentifier.departureAirport.codeContext", constant = CODE_CONTEXT)
-    @Mapping(target = "legIdentifier.arrivalAirport.value", source = "flightLeg.arrival.airport.code")
+    @Mapping(target = "legIdentifier.arrivalAirport.value", source = "arrivalAirportCode")
     @Mapping(target = "legIdentifier.arrivalAirport.codeContext", constant = CODE_CONTEXT)
-    @Mapping(target = "legIdentifier.originDate",
-            source = "sendOperationalFlightInternalEvent.operationalFlight.flightIdentifier.scheduledDate")
-    @Mapping(target = "legData.airportResources", source = "flightLeg", qualifiedByName = "mapAirportResources")
-    @Mapping(target = "legData.operationTime", source = "flightLeg", qualifiedByName = "mapOperationTime")
-    FlightLegType populateFlightLeg(
-            SendOperationalFlightInternalEvent sendOperationalFlightInternalEvent, FlightLeg flightLeg
-    );
+    @Mapping(target = "legIdentifier.originDate", source = "scheduledDate")
+    @Mapping(target = "legData.airportResources", source = "flightLegSnapshot", qualifiedByName = "mapAirportResources")
+    @Mapping(target = "legData.operationTime", source = "flightLegSnapshot", qualifiedByName = "mapOperationTime")
+    FlightLegType populateFlightLeg(FlightLegSnapshot flightLegSnapshot);
 
     /**
-     * This method is used to convert the XMLGregorianCalendar date to string
+     * This method is used to convert a flight leg time to string
      *
-     * @param date
+     * @param flightLegSnapshot source Object
+     * @param legTime           the time
      * @return String
      */
-    @Named("mapOperationTimeValue")
-    default String mapOperationTimeValue(XMLGregorianCalendar date) {
-        return date.toGregorianCalendar().toZonedDateTime().toLocalDateTime()
-                .format(DateTimeFormatter.ofPattern(OPERATION_TIME_DATE_TIME_FORMAT));
+    default String mapOperationTimeValue(FlightLegSnapshot flightLegSnapshot, LegTime legTime) {
+        return flightLegSnapshot.format(legTime, TimeFormat.OPERATION_TIME);
     }
 
     /**
@@ -139,13 +128,13 @@ public interface SOFIByKLMapper {
      *
      * @return OperationTime target Object
      */
-    @Mapping(target = "value", source = "date", qualifiedByName = "mapOperationTimeValue")
+    @Mapping(target = "value", source = "value")
     @Mapping(target = "operationQualifier", source = "operationQualifier")
     @Mapping(target = "codeContext", constant = OPERATION_TIME_CODE_CONTEXT)
     @Mapping(target = "repeatIndex", source = "repeatIndex")
     @Mapping(target = "timeType", source = "timeType")
     FlightLegType.LegData.OperationTime populateOperationTime(
-            XMLGregorianCalendar date, String operationQualifier, int repeatIndex, String timeType
+            String value, String operationQualifier, int repeatIndex, String timeType
     );
 
     /**
@@ -154,64 +143,40 @@ public interface SOFIByKLMapper {
      * @return list of OperationTime
      */
     @Named("mapOperationTime")
-    default List<FlightLegType.LegData.OperationTime> mapOperationTime(FlightLeg flightLeg) {
-        String departureCode = Optional.ofNullable(flightLeg)
-                .map(FlightLeg::getDeparture)
-                .map(Departure::getAirport)
-                .map(Airport::getCode)
-                .orElse(null);
+    default List<FlightLegType.LegData.OperationTime> mapOperationTime(FlightLegSnapshot flightLegSnapshot) {
+        String departureCode = flightLegSnapshot.getDepartureAirportCode();
         List<FlightLegType.LegData.OperationTime> operationTimeList = new ArrayList<>();
         if (departureCode != null && !departureCode.equals(AMS)) {
-            int[] counter = {1};
-            FlightHandlingTimes flightHandlingTimes = Optional.ofNullable(flightLeg)
-                    .map(FlightLeg::getDeparture)
-                    .map(Departure::getFlightHandlingTimes)
-                    .orElse(null);
-            Times times = Optional.ofNullable(flightLeg)
-                    .map(FlightLeg::getDeparture)
-                    .map(Departure::getTimes)
-                    .orElse(null);
-            if (flightHandlingTimes != null) {
-                Optional.of(flightHandlingTimes)
-                        .map(FlightHandlingTimes::getTargetTakeOffTime)
-                        .ifPresent(targetTakeOffTime -> {
-                            operationTimeList.add(populateOperationTime(targetTakeOffTime, TKO, counter[0], TAR));
-                            counter[0]++;
-                        });
-                Optional.of(flightHandlingTimes)
-                        .map(FlightHandlingTimes::getActualStartupRequestTime)
-                        .ifPresent(actualStartupRequestTime -> {
-                            operationTimeList.add(populateOperationTime(actualStartupRequestTime, SRT, counter[0], ACT));
-                            counter[0]++;
-                        });
+            int counter = 1;
+            if (flightLegSnapshot.hasTime(LegTime.DEPARTURE_TARGET_TAKE_OFF)) {
+                operationTimeList.add(populateOperationTime(mapOperationTimeValue(flightLegSnapshot,
+                        LegTime.DEPARTURE_TARGET_TAKE_OFF), TKO, counter++, TAR));
             }
-            if (times != null) {
-                Optional.of(times)
-                        .map(Times::getTargetStartupApprovalTime)
-                        .ifPresent(targetStartupApprovalTime -> {
-                            operationTimeList.add(populateOperationTime(targetStartupApprovalTime, SAT, counter[0], TAR));
-                            counter[0]++;
-                        });
-                Optional.of(times)
-                        .map(Times::getTargetOffBlockTime)
-                        .ifPresent(targetOffBlockTime -> {
-                            operationTimeList.add(populateOperationTime(targetOffBlockTime, OFB, counter[0], TAR));
-                            counter[0]++;
-                        });
+            if (flightLegSnapshot.hasTime(LegTime.DEPARTURE_ACTUAL_STARTUP_REQUEST)) {
+                operationTimeList.add(populateOperationTime(mapOperationTimeValue(flightLegSnapshot,
+                        LegTime.DEPARTURE_ACTUAL_STARTUP_REQUEST), SRT, counter++, ACT));
+            }
+            if (flightLegSnapshot.hasTime(LegTime.DEPARTURE_TARGET_STARTUP_APPROVAL)) {
+                operationTimeList.add(populateOperationTime(mapOperationTimeValue(flightLegSnapshot,
+                        LegTime.DEPARTURE_TARGET_STARTUP_APPROVAL), SAT, counter++, TAR));
+            }
+            if (flightLegSnapshot.hasTime(LegTime.DEPARTURE_TARGET_OFF_BLOCK)) {
+                operationTimeList.add(populateOperationTime(mapOperationTimeValue(flightLegSnapshot,
+                        LegTime.DEPARTURE_TARGET_OFF_BLOCK), OFB, counter, TAR));
             }
         }
         return operationTimeList;
     }
 
     /**
-     * Maps a flightLeg to an AirportResources object
+     * Maps a flight leg snapshot to an AirportResources object
      *
-     * @param flightLeg source Object
+     * @param flightLegSnapshot source Object
      * @return AirportResources target Object
      */
-    @Mapping(target = "resource", source = "flightLeg", qualifiedByName = "mapResource")
+    @Mapping(target = "resource", source = "flightLegSnapshot", qualifiedByName = "mapResource")
     @Mapping(target = "usage", expression = "java(mapUsage())")
-    FlightLegType.LegData.AirportResources populateAirportResources(FlightLeg flightLeg);
+    FlightLegType.LegData.AirportResources populateAirportResources(FlightLegSnapshot flightLegSnapshot);
 
     /**
      * Returns an enum UsageType.
@@ -221,43 +186,35 @@ public interface SOFIByKLMapper {
     }
 
     /**
-     * Maps a flightLeg to JAXBElement
+     * Maps a flight leg snapshot to JAXBElement
      *
-     * @param flightLeg source Object
+     * @param flightLegSnapshot source Object
      * @return JAXBElement of string
      */
-    default JAXBElement<String> mapRunway(FlightLeg flightLeg, String departureOrArrival, boolean isAms) {
+    default JAXBElement<String> mapRunway(FlightLegSnapshot flightLegSnapshot, String departureOrArrival,
+                                          boolean isAms) {
         if (isAms) {
             return null;
         }
-        if (departureOrArrival.equals(DEPARTURE)) {
-            String takeOffRunwayCode = Optional.ofNullable(flightLeg)
-                    .map(FlightLeg::getDeparture)
-                    .map(Departure::getTakeOffRunwayCode)
-                    .orElse(null);
-            return takeOffRunwayCode != null
-                    ? new JAXBElement<>(new QName(NAMESPACE_URI, RUNWAY), String.class, takeOffRunwayCode) : null;
-        } else {
-            String landingRunwayCode = Optional.ofNullable(flightLeg)
-                    .map(FlightLeg::getArrival)
-                    .map(Arrival::getLandingRunwayCode)
-                    .orElse(null);
-            return landingRunwayCode != null ?
-                    new JAXBElement<>(new QName(NAMESPACE_URI, RUNWAY), String.class, landingRunwayCode) : null;
-        }
+        String runwayCode = departureOrArrival.equals(DEPARTURE) ? flightLegSnapshot.getTakeOffRunwayCode()
+                : flightLegSnapshot.getLandingRunwayCode();
+        return runwayCode != null
+                ? new JAXBElement<>(new QName(NAMESPACE_URI, RUNWAY), String.class, runwayCode) : null;
     }
 
     /**
-     * Maps a flightLeg & departureOrArrival to an Resource object
+     * Maps a flight leg snapshot & departureOrArrival to an Resource object
      *
-     * @param flightLeg source Object
+     * @param flightLegSnapshot source Object
      * @return Resource target Object
      */
-    @Mapping(target = "runway", expression = "java(mapRunway(flightLeg,departureOrArrival,isAms))")
-    @Mapping(target = "passengerGate", expression = "java(mapPassengerGate(flightLeg,departureOrArrival))")
-    @Mapping(target = "aircraftParkingPosition", expression = "java(mapAircraftParkingPosition(flightLeg,departureOrArrival))")
+    @Mapping(target = "runway", expression = "java(mapRunway(flightLegSnapshot,departureOrArrival,isAms))")
+    @Mapping(target = "passengerGate", expression = "java(mapPassengerGate(flightLegSnapshot,departureOrArrival))")
+    @Mapping(target = "aircraftParkingPosition",
+            expression = "java(mapAircraftParkingPosition(flightLegSnapshot,departureOrArrival))")
     @Mapping(target = "departureOrArrival", source = "departureOrArrival", qualifiedByName = "mapDepartureOrArrival")
-    FlightLegType.LegData.AirportResources.Resource populateResource(FlightLeg flightLeg, String departureOrArrival, boolean isAms);
+    FlightLegType.LegData.AirportResources.Resource populateResource(FlightLegSnapshot flightLegSnapshot,
+                                                                     String departureOrArrival, boolean isAms);
 
     /**
      * Maps a code to an PassengerGate object
@@ -270,34 +227,16 @@ public interface SOFIByKLMapper {
     FlightLegType.LegData.AirportResources.Resource.PassengerGate populatePassengerGate(String code);
 
     /**
-     * Maps a flightLeg to a list of PassengerGate
+     * Maps a flight leg snapshot to a list of PassengerGate
      *
-     * @param flightLeg & departureOrArrival source Object
+     * @param flightLegSnapshot & departureOrArrival source Object
      * @return list of PassengerGate target Object
      */
     default List<FlightLegType.LegData.AirportResources.Resource.PassengerGate> mapPassengerGate(
-            FlightLeg flightLeg, String departureOrArrival) {
+            FlightLegSnapshot flightLegSnapshot, String departureOrArrival) {
         List<FlightLegType.LegData.AirportResources.Resource.PassengerGate> passengerGateList = new ArrayList<>();
-        String gateCode;
-        if (departureOrArrival.equals(DEPARTURE)) {
-            gateCode = Optional.ofNullable(flightLeg)
-                    .map(FlightLeg::getDeparture)
-                    .map(Departure::getBoarding)
-                    .map(Boarding::getLocation)
-                    .map(Location::getGateCode)
-                    .filter(gateCodes -> !gateCodes.isEmpty())
-                    .map(gateCodes -> gateCodes.get(0))
-                    .orElse(null);
-        } else {
-            gateCode = Optional.ofNullable(flightLeg)
-                    .map(FlightLeg::getArrival)
-                    .map(Arrival::getDisembarking)
-                    .map(Disembarking::getLocation)
-                    .map(Location::getGateCode)
-                    .filter(gateCodes -> !gateCodes.isEmpty())
-                    .map(gateCodes -> gateCodes.get(0))
-                    .orElse(null);
-        }
+        String gateCode = departureOrArrival.equals(DEPARTURE) ? flightLegSnapshot.getDepartureGateCode()
+                : flightLegSnapshot.getArrivalGateCode();
         if (gateCode != null && !gateCode.isEmpty()) {
             passengerGateList.add(populatePassengerGate(gateCode));
         }
@@ -318,40 +257,28 @@ public interface SOFIByKLMapper {
     /**
      * This method is used to get the AircraftParkingPositionValue(
      *
-     * @param flightLeg & departureOrArrival source Object
+     * @param flightLegSnapshot & departureOrArrival source Object
      * @return String
      */
-    default String getAircraftParkingPositionValue(String departureOrArrival, FlightLeg flightLeg) {
-        return departureOrArrival.equals(DEPARTURE) ?
-                Optional.ofNullable(flightLeg)
-                        .map(FlightLeg::getDeparture)
-                        .map(Departure::getParkingPosition)
-                        .map(ParkingPosition::getCode)
-                        .orElse(null) :
-                Optional.ofNullable(flightLeg)
-                        .map(FlightLeg::getArrival)
-                        .map(Arrival::getParkingPosition)
-                        .map(ParkingPosition::getCode)
-                        .orElse(null);
+    default String getAircraftParkingPositionValue(String departureOrArrival, FlightLegSnapshot flightLegSnapshot) {
+        return departureOrArrival.equals(DEPARTURE) ? flightLegSnapshot.getDepartureParkingPosition()
+                : flightLegSnapshot.getArrivalParkingPosition();
     }
 
     /**
-     * Maps a flightLeg to a list of AircraftParkingPosition.
+     * Maps a flight leg snapshot to a list of AircraftParkingPosition.
      *
-     * @param flightLeg & departureOrArrival source Object
+     * @param flightLegSnapshot & departureOrArrival source Object
      * @return JAXBElement of AircraftParkingPosition
      */
     default JAXBElement<FlightLegType.LegData.AirportResources.Resource.AircraftParkingPosition> mapAircraftParkingPosition(
-            FlightLeg flightLeg, String departureOrArrival) {
-        String aircraftParkingPositionValue = getAircraftParkingPositionValue(departureOrArrival, flightLeg);
+            FlightLegSnapshot flightLegSnapshot, String departureOrArrival) {
+        String aircraftParkingPositionValue = getAircraftParkingPositionValue(departureOrArrival, flightLegSnapshot);
         if (aircraftParkingPositionValue != null) {
-            return Optional.ofNullable(flightLeg)
-                    .map(qualifier -> new JAXBElement<>(
-                            new QName(NAMESPACE_URI, AIRCRAFT_PARKING_POSITION),
-                            FlightLegType.LegData.AirportResources.Resource.AircraftParkingPosition.class,
-                            populateAircraftParkingPosition(aircraftParkingPositionValue))
-                    )
-                    .orElse(null);
+            return new JAXBElement<>(
+                    new QName(NAMESPACE_URI, AIRCRAFT_PARKING_POSITION),
+                    FlightLegType.LegData.AirportResources.Resource.AircraftParkingPosition.class,
+                    populateAircraftParkingPosition(aircraftParkingPositionValue));
         }
         return null;
     }
@@ -368,29 +295,20 @@ public interface SOFIByKLMapper {
     }
 
     /**
-     * Maps a flightLeg to a list of Resource.
+     * Maps a flight leg snapshot to a list of Resource.
      *
-     * @param flightLeg
+     * @param flightLegSnapshot
      * @return list of Resource
      */
     @Named("mapResource")
-    default List<FlightLegType.LegData.AirportResources.Resource> mapResource(FlightLeg flightLeg) {
+    default List<FlightLegType.LegData.AirportResources.Resource> mapResource(FlightLegSnapshot flightLegSnapshot) {
         List<FlightLegType.LegData.AirportResources.Resource> resourceList = new ArrayList<>();
-        String departureCode = Optional.ofNullable(flightLeg)
-                .map(FlightLeg::getDeparture)
-                .map(Departure::getAirport)
-                .map(Airport::getCode)
-                .orElse(null);
-
-        String arrivalCode = Optional.ofNullable(flightLeg)
-                .map(FlightLeg::getArrival)
-                .map(Arrival::getAirport)
-                .map(Airport::getCode)
-                .orElse(null);
+        String departureCode = flightLegSnapshot.getDepartureAirportCode();
+        String arrivalCode = flightLegSnapshot.getArrivalAirportCode();
 
         if (departureCode != null && !departureCode.equals(AMS)) {
             FlightLegType.LegData.AirportResources.Resource resource = populateResource(
-                    flightLeg, DepartureArrivalType.DEPARTURE.value(), false
+                    flightLegSnapshot, DepartureArrivalType.DEPARTURE.value(), false
             );
             String aircraftParkingPosition = getAircraftParkingPosition(resource);
             String passengerGate = getPassengerGate(resource);
@@ -400,7 +318,7 @@ public interface SOFIByKLMapper {
             }
         } else {
             FlightLegType.LegData.AirportResources.Resource resource = populateResource(
-                    flightLeg, DepartureArrivalType.DEPARTURE.value(), true
+                    flightLegSnapshot, DepartureArrivalType.DEPARTURE.value(), true
             );
             String aircraftParkingPosition = getAircraftParkingPosition(resource);
             String passengerGate = getPassengerGate(resource);
@@ -411,7 +329,7 @@ public interface SOFIByKLMapper {
         }
         if (arrivalCode != null && !arrivalCode.equals(AMS)) {
             FlightLegType.LegData.AirportResources.Resource resource = populateResource(
-                    flightLeg, DepartureArrivalType.ARRIVAL.value(), false
+                    flightLegSnapshot, DepartureArrivalType.ARRIVAL.value(), false
             );
             String aircraftParkingPosition = getAircraftParkingPosition(resource);
             String passengerGate = getPassengerGate(resource);
@@ -421,7 +339,7 @@ public interface SOFIByKLMapper {
             }
         } else {
             FlightLegType.LegData.AirportResources.Resource resource = populateResource(
-                    flightLeg, DepartureArrivalType.ARRIVAL.value(), true
+                    flightLegSnapshot, DepartureArrivalType.ARRIVAL.value(), true
             );
             String aircraftParkingPosition = getAircraftParkingPosition(resource);
             String passengerGate = getPassengerGate(resource);
@@ -475,15 +393,15 @@ public interface SOFIByKLMapper {
     }
 
     /**
-     * Maps a flightLeg to a list of Resource.
+     * Maps a flight leg snapshot to a list of Resource.
      *
-     * @param flightLeg
+     * @param flightLegSnapshot
      * @return list of Resource
      */
     @Named("mapAirportResources")
-    default List<FlightLegType.LegData.AirportResources> mapAirportResources(FlightLeg flightLeg) {
+    default List<FlightLegType.LegData.AirportResources> mapAirportResources(FlightLegSnapshot flightLegSnapshot) {
         List<FlightLegType.LegData.AirportResources> airportResourcesList = new ArrayList<>();
-        FlightLegType.LegData.AirportResources airportResources = populateAirportResources(flightLeg);
+        FlightLegType.LegData.AirportResources airportResources = populateAirportResources(flightLegSnapshot);
         if (airportResources != null && airportResources.getResource() != null && !airportResources.getResource().isEmpty()) {
             airportResourcesList.add(airportResources);
         }
@@ -491,15 +409,13 @@ public interface SOFIByKLMapper {
     }
 
     /**
-     * Maps a flightLeg to a list of flightLegType.
+     * Maps a flight leg snapshot to a list of flightLegType.
      *
-     * @param sendOperationalFlightInternalEvent
+     * @param flightLegSnapshot
      * @return list of flightLegType
      */
-    default List<FlightLegType> populateFlightLegs(SendOperationalFlightInternalEvent sendOperationalFlightInternalEvent) {
-        return List.of(populateFlightLeg(sendOperationalFlightInternalEvent,
-                sendOperationalFlightInternalEvent.getOperationalFlight().getFlightleg().get(0))
-        );
+    default List<FlightLegType> populateFlightLegs(FlightLegSnapshot flightLegSnapshot) {
+        return List.of(populateFlightLeg(flightLegSnapshot));
     }
 
     /**
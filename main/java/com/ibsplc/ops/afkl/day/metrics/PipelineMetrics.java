@@ -0,0 +1,264 @@
+package com.ibsplc.ops.afkl.day.metrics;
+
+import com.ibsplc.ops.afkl.day.enums.DropReason;
+import com.ibsplc.ops.afkl.day.enums.ErrorCodes;
+import com.ibsplc.ops.afkl.day.enums.PipelineStage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics of the SOFI pipeline: latency per stage, outcome per error code, messages discarded by the pre-filter per
+ * reason, skipped duplicates, superseded records and unchanged outputs, volume per airline and output type, payload
+ * sizes, claim checks and the throughput and queue depth of the airline routes.
+ *
+ * <p>All the meters are resolved once and kept in maps, so recording only costs a map lookup and an atomic update.
+ *
+ * <p>While the pipeline is primed, the meters record to a throwaway registry, so that the synthetic records of the
+ * priming are not reported with the real ones. The route gauges and the priming timer always use the registry of the
+ * service.
+ */
+@ApplicationScoped
+@SuppressWarnings("unused")
+public class PipelineMetrics {
+
+    private static final String STAGE_TIMER = "sofi.pipeline.stage";
+    private static final String ERROR_COUNTER = "sofi.pipeline.errors";
+    private static final String AIRLINE_COUNTER = "sofi.pipeline.messages";
+    private static final String OUTPUT_COUNTER = "sofi.pipeline.outputs";
+    private static final String DUPLICATE_COUNTER = "sofi.pipeline.duplicates";
+    private static final String SUPPRESSED_COUNTER = "sofi.pipeline.suppressed";
+    private static final String COALESCED_COUNTER = "sofi.pipeline.coalesced";
+    private static final String CLAIM_CHECK_COUNTER = "sofi.pipeline.claimcheck";
+    private static final String DROPPED_COUNTER = "sofi.prefilter.dropped";
+    private static final String PRIMING_TIMER = "sofi.priming.duration";
+    private static final String ROUTE_TIMER = "sofi.route.duration";
+    private static final String ROUTE_QUEUE_DEPTH = "sofi.route.queue.depth";
+    private static final String ROUTE_ACTIVE = "sofi.route.active";
+    private static final String ROUTE_REJECTED_COUNTER = "sofi.route.rejected";
+    private static final String INPUT_SIZE = "sofi.pipeline.input.size";
+    private static final String OUTPUT_SIZE = "sofi.pipeline.output.size";
+    private static final String OTHER_AIRLINE = "other";
+    private static final String STAGE = "stage";
+    private static final String CODE = "code";
+    private static final String REASON = "reason";
+    private static final String AIRLINE = "airline";
+    private static final String TYPE = "type";
+    private static final String CHARACTERS = "characters";
+
+    @Inject
+    private MeterRegistry meterRegistry;
+
+    private volatile Meters meters;
+
+    @PostConstruct
+    void init() {
+        meters = new Meters(meterRegistry);
+    }
+
+    /**
+     * Switches the meters to a throwaway registry while the pipeline is primed, and back to the registry of the
+     * service
+     *
+     * @param priming true while the pipeline is primed
+     */
+    public void setPriming(boolean priming) {
+        meters = new Meters(priming ? new SimpleMeterRegistry() : meterRegistry);
+    }
+
+    /**
+     * @return the current time, to be passed to {@link #recordStage(PipelineStage, long)} at the end of the stage
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the duration of a stage started at the given time
+     *
+     * @param stage      the stage
+     * @param startNanos value returned by {@link #start()}
+     */
+    public void recordStage(PipelineStage stage, long startNanos) {
+        meters.stageTimers.get(stage).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the duration of a stage measured by the caller
+     *
+     * @param stage         the stage
+     * @param durationNanos the duration
+     */
+    public void recordStageNanos(PipelineStage stage, long durationNanos) {
+        meters.stageTimers.get(stage).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records how long the priming before the checkpoint took
+     *
+     * @param durationNanos the duration
+     */
+    public void recordPriming(long durationNanos) {
+        Timer.builder(PRIMING_TIMER).register(meterRegistry).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void incrementError(ErrorCodes errorCode) {
+        meters.errorCounters.get(errorCode).increment();
+    }
+
+    /**
+     * Counts a message per airline, the airlines without a registered processor share the other tag so that the
+     * input cannot create any number of counters
+     *
+     * @param airlineCode a registered airline code, null for any other airline
+     */
+    public void incrementAirline(String airlineCode) {
+        Meters current = meters;
+        current.airlineCounters.computeIfAbsent(airlineCode != null ? airlineCode : OTHER_AIRLINE, airline ->
+                Counter.builder(AIRLINE_COUNTER).tag(AIRLINE, airline).register(current.registry)).increment();
+    }
+
+    public void incrementDropped(DropReason dropReason) {
+        meters.droppedCounters.get(dropReason).increment();
+    }
+
+    public void incrementDuplicate() {
+        meters.duplicateCounter.increment();
+    }
+
+    public void incrementCoalesced() {
+        meters.coalescedCounter.increment();
+    }
+
+    /**
+     * Counts an output not published because it is identical to the previous one of the flight
+     *
+     * @param messageType the output type (AF AIDX, KL AIDX, KL CDM)
+     */
+    public void incrementSuppressed(String messageType) {
+        Meters current = meters;
+        current.suppressedCounters.computeIfAbsent(messageType, type ->
+                Counter.builder(SUPPRESSED_COUNTER).tag(TYPE, type).register(current.registry)).increment();
+    }
+
+    /**
+     * Counts an output stored in the payload store and published as a claim check
+     *
+     * @param messageType the output type (AF AIDX, KL AIDX, KL CDM)
+     */
+    public void incrementClaimCheck(String messageType) {
+        Meters current = meters;
+        current.claimCheckCounters.computeIfAbsent(messageType, type ->
+                Counter.builder(CLAIM_CHECK_COUNTER).tag(TYPE, type).register(current.registry)).increment();
+    }
+
+    /**
+     * Registers the queue depth and active thread gauges of the executor of an airline route
+     *
+     * @param airlineCode the airline of the route
+     * @param executor    the executor of the route
+     */
+    public void registerRoute(String airlineCode, ThreadPoolExecutor executor) {
+        Gauge.builder(ROUTE_QUEUE_DEPTH, executor, routeExecutor -> routeExecutor.getQueue().size())
+                .tag(AIRLINE, airlineCode).register(meterRegistry);
+        Gauge.builder(ROUTE_ACTIVE, executor, ThreadPoolExecutor::getActiveCount)
+                .tag(AIRLINE, airlineCode).register(meterRegistry);
+    }
+
+    /**
+     * Records the processing of a record by an airline route, the count of the timer gives the route throughput
+     *
+     * @param airlineCode the airline of the route
+     * @param startNanos  value returned by {@link #start()}
+     */
+    public void recordRoute(String airlineCode, long startNanos) {
+        Meters current = meters;
+        current.routeTimers.computeIfAbsent(airlineCode, airline ->
+                        Timer.builder(ROUTE_TIMER).tag(AIRLINE, airline).register(current.registry))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts a flight refused by a full airline route, its records are redelivered
+     *
+     * @param airlineCode the airline of the route
+     */
+    public void incrementRouteRejected(String airlineCode) {
+        Meters current = meters;
+        current.routeRejectedCounters.computeIfAbsent(airlineCode, airline ->
+                        Counter.builder(ROUTE_REJECTED_COUNTER).tag(AIRLINE, airline).register(current.registry))
+                .increment();
+    }
+
+    public void recordInputSize(int characters) {
+        meters.inputSize.record(characters);
+    }
+
+    /**
+     * Counts an output handed to the publisher and records its size
+     *
+     * @param messageType the output type (AF AIDX, KL AIDX, KL CDM)
+     * @param characters  the output size
+     */
+    public void recordOutput(String messageType, int characters) {
+        Meters current = meters;
+        current.outputCounters.computeIfAbsent(messageType, type ->
+                Counter.builder(OUTPUT_COUNTER).tag(TYPE, type).register(current.registry)).increment();
+        current.outputSizes.computeIfAbsent(messageType, type ->
+                DistributionSummary.builder(OUTPUT_SIZE).tag(TYPE, type).baseUnit(CHARACTERS)
+                        .publishPercentileHistogram().register(current.registry)).record(characters);
+    }
+
+    /**
+     * The meters of a registry, resolved once
+     */
+    private static final class Meters {
+
+        private final MeterRegistry registry;
+        private final Map<PipelineStage, Timer> stageTimers = new EnumMap<>(PipelineStage.class);
+        private final Map<ErrorCodes, Counter> errorCounters = new EnumMap<>(ErrorCodes.class);
+        private final Map<DropReason, Counter> droppedCounters = new EnumMap<>(DropReason.class);
+        private final Map<String, Counter> airlineCounters = new ConcurrentHashMap<>();
+        private final Map<String, Counter> outputCounters = new ConcurrentHashMap<>();
+        private final Map<String, DistributionSummary> outputSizes = new ConcurrentHashMap<>();
+        private final Map<String, Counter> suppressedCounters = new ConcurrentHashMap<>();
+        private final Map<String, Counter> claimCheckCounters = new ConcurrentHashMap<>();
+        private final Map<String, Timer> routeTimers = new ConcurrentHashMap<>();
+        private final Map<String, Counter> routeRejectedCounters = new ConcurrentHashMap<>();
+        private final DistributionSummary inputSize;
+        private final Counter duplicateCounter;
+        private final Counter coalescedCounter;
+
+        private Meters(MeterRegistry registry) {
+            super();
+            this.registry = registry;
+            for (PipelineStage stage : PipelineStage.values()) {
+                stageTimers.put(stage, Timer.builder(STAGE_TIMER).tag(STAGE, stage.getTag()).register(registry));
+            }
+            for (ErrorCodes errorCode : ErrorCodes.values()) {
+                errorCounters.put(errorCode, Counter.builder(ERROR_COUNTER).tag(CODE, errorCode.name())
+                        .register(registry));
+            }
+            for (DropReason dropReason : DropReason.values()) {
+                droppedCounters.put(dropReason, Counter.builder(DROPPED_COUNTER).tag(REASON, dropReason.getTag())
+                        .register(registry));
+            }
+            duplicateCounter = Counter.builder(DUPLICATE_COUNTER).register(registry);
+            coalescedCounter = Counter.builder(COALESCED_COUNTER).register(registry);
+            inputSize = DistributionSummary.builder(INPUT_SIZE).baseUnit(CHARACTERS).publishPercentileHistogram()
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.ibsplc.ops.afkl.day.prefilter;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Extracts the key fields of an inbound SOFI SOAP message by scanning its characters for tags, without building a
+ * tree, binding or validating it.
+ *
+ * <p>The element names are compared without namespace prefix and case-insensitively, the same way the lenient
+ * binding matches them, so that the summary never misses an element the binding would see. Comments, CDATA sections
+ * and processing instructions are skipped. A message with a DTD, an entity reference in an extracted value or an
+ * unbalanced structure gives an incomplete summary.
+ */
+public final class SofiMessageScanner {
+
+    private static final String COMMENT_START = "<!--";
+    private static final String COMMENT_END = "-->";
+    private static final String CDATA_START = "<![CDATA[";
+    private static final String CDATA_END = "]]>";
+    private static final String PROCESSING_INSTRUCTION_START = "<?";
+    private static final String PROCESSING_INSTRUCTION_END = "?>";
+    private static final String OPERATIONAL_FLIGHT = "operationalFlight";
+    private static final String FLIGHT_IDENTIFIER = "flightIdentifier";
+    private static final String AIRLINE_CODE = "airlineCode";
+    private static final String FLIGHT_LEG = "flightleg";
+    private static final String DEPARTURE = "departure";
+    private static final String ARRIVAL = "arrival";
+    private static final String AIRPORT = "airport";
+    private static final String CODE = "code";
+    private static final String TIME = "time";
+    private static final Set<String> RESOURCES =
+            Set.of("takeoffrunwaycode", "landingrunwaycode", "parkingposition", "gatecode");
+    private static final int MAX_DEPTH = 64;
+
+    private SofiMessageScanner() {
+        super();
+    }
+
+    /**
+     * Scans the message
+     *
+     * @param message the SOAP message
+     * @return the key fields of the message
+     */
+    public static SofiMessageSummary scan(String message) {
+        SofiMessageSummary summary = new SofiMessageSummary();
+        String[] path = new String[MAX_DEPTH];
+        int depth = 0;
+        int flightLegDepth = -1;
+        int index = 0;
+        while ((index = message.indexOf('<', index)) >= 0) {
+            if (message.startsWith(COMMENT_START, index)) {
+                index = skip(message, index, COMMENT_END);
+            } else if (message.startsWith(CDATA_START, index)) {
+                index = skip(message, index, CDATA_END);
+            } else if (message.startsWith(PROCESSING_INSTRUCTION_START, index)) {
+                index = skip(message, index, PROCESSING_INSTRUCTION_END);
+            } else if (index + 1 < message.length() && message.charAt(index + 1) == '!') {
+                // DOCTYPE, its entities could change the content
+                return summary;
+            } else if (index + 1 < message.length() && message.charAt(index + 1) == '/') {
+                if (depth == 0) {
+                    return summary;
+                }
+                depth--;
+                if (depth == flightLegDepth) {
+                    flightLegDepth = -1;
+                }
+                index = message.indexOf('>', index);
+            } else {
+                int tagEnd = findTagEnd(message, index);
+                if (tagEnd < 0 || depth == MAX_DEPTH) {
+                    return summary;
+                }
+                String name = localName(message, index + 1, tagEnd);
+                String parent = depth > 0 ? path[depth - 1] : null;
+                String grandParent = depth > 1 ? path[depth - 2] : null;
+                if (flightLegDepth < 0) {
+                    if (FLIGHT_LEG.equalsIgnoreCase(name) && OPERATIONAL_FLIGHT.equalsIgnoreCase(parent)) {
+                        summary.setFlightLegs(summary.getFlightLegs() + 1);
+                        flightLegDepth = depth;
+                    } else if (AIRLINE_CODE.equalsIgnoreCase(name) && FLIGHT_IDENTIFIER.equalsIgnoreCase(parent)
+                            && OPERATIONAL_FLIGHT.equalsIgnoreCase(grandParent) && summary.getAirlineCode() == null) {
+                        String airlineCode = text(message, tagEnd);
+                        if (airlineCode == null) {
+                            return summary;
+                        }
+                        summary.setAirlineCode(airlineCode);
+                    }
+                } else {
+                    String lowerCaseName = name.toLowerCase(Locale.ROOT);
+                    if (lowerCaseName.contains(TIME)) {
+                        summary.setTimes(true);
+                    } else if (RESOURCES.contains(lowerCaseName)) {
+                        summary.setResources(true);
+                    } else if (CODE.equalsIgnoreCase(name) && AIRPORT.equalsIgnoreCase(parent)
+                            && depth == flightLegDepth + 3 && summary.getFlightLegs() == 1) {
+                        if (DEPARTURE.equalsIgnoreCase(grandParent)) {
+                            summary.setDepartureAirportCode(text(message, tagEnd));
+                        } else if (ARRIVAL.equalsIgnoreCase(grandParent)) {
+                            summary.setArrivalAirportCode(text(message, tagEnd));
+                        }
+                    }
+                }
+                if (message.charAt(tagEnd - 1) != '/') {
+                    path[depth++] = name;
+                } else if (depth == flightLegDepth) {
+                    flightLegDepth = -1;
+                }
+                index = tagEnd;
+            }
+            if (index < 0) {
+                return summary;
+            }
+        }
+        summary.setComplete(depth == 0);
+        return summary;
+    }
+
+    /**
+     * @return the index of the end of the construct starting at the index, or -1 if it does not end
+     */
+    private static int skip(String message, int index, String end) {
+        int endIndex = message.indexOf(end, index);
+        return endIndex < 0 ? -1 : endIndex + end.length();
+    }
+
+    /**
+     * @return the index of the '>' closing the start tag at the index, ignoring the ones in attribute values
+     */
+    private static int findTagEnd(String message, int index) {
+        char quote = 0;
+        for (int i = index + 1; i < message.length(); i++) {
+            char character = message.charAt(i);
+            if (quote != 0) {
+                if (character == quote) {
+                    quote = 0;
+                }
+            } else if (character == '"' || character == '\'') {
+                quote = character;
+            } else if (character == '>') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String localName(String message, int nameStart, int tagEnd) {
+        int nameEnd = nameStart;
+        int localNameStart = nameStart;
+        while (nameEnd < tagEnd) {
+            char character = message.charAt(nameEnd);
+            if (Character.isWhitespace(character) || character == '/') {
+                break;
+            }
+            if (character == ':') {
+                localNameStart = nameEnd + 1;
+            }
+            nameEnd++;
+        }
+        return message.substring(localNameStart, nameEnd);
+    }
+
+    /**
+     * @return the trimmed text following the start tag ending at the index, null if it holds a reference or markup
+     */
+    private static String text(String message, int tagEnd) {
+        int textEnd = message.indexOf('<', tagEnd + 1);
+        if (textEnd < 0) {
+            return null;
+        }
+        String text = message.substring(tagEnd + 1, textEnd).trim();
+        return text.indexOf('&') >= 0 || message.startsWith(COMMENT_START, textEnd)
+                || message.startsWith(CDATA_START, textEnd) ? null : text;
+    }
+}
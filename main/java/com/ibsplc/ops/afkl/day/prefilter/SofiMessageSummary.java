@@ -0,0 +1,47 @@
+package com.ibsplc.ops.afkl.day.prefilter;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Key fields of an inbound SOFI SOAP message, extracted by the {@link SofiMessageScanner} without parsing it.
+ */
+@Getter
+@Setter
+public class SofiMessageSummary {
+
+    /**
+     * Whether the whole message was scanned and the fields below can be relied upon
+     */
+    private boolean complete;
+
+    /**
+     * The airlineCode of the flightIdentifier of the operationalFlight, null if absent
+     */
+    private String airlineCode;
+
+    /**
+     * Departure airport code of the first flight leg
+     */
+    private String departureAirportCode;
+
+    /**
+     * Arrival airport code of the first flight leg
+     */
+    private String arrivalAirportCode;
+
+    /**
+     * Number of flight legs
+     */
+    private int flightLegs;
+
+    /**
+     * Whether any flight leg has a time element
+     */
+    private boolean times;
+
+    /**
+     * Whether any flight leg has a runway, gate or parking position element
+     */
+    private boolean resources;
+}
@@ -0,0 +1,77 @@
+package com.ibsplc.ops.afkl.day.prefilter;
+
+import com.ibsplc.ops.afkl.day.enums.DropReason;
+import com.ibsplc.ops.afkl.day.enums.ErrorCodes;
+import com.ibsplc.ops.afkl.day.enums.PipelineStage;
+import com.ibsplc.ops.afkl.day.metrics.PipelineMetrics;
+import com.ibsplc.ops.afkl.day.processor.AirlineProcessorRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Discards the inbound messages which provably produce no output, before they pay for the SOAP parsing, the
+ * SOFI.xsd validation and the binding.
+ *
+ * <p>A message is discarded only when its {@link SofiMessageSummary} is complete and shows that it is from an
+ * airline without a registered processor, that it has no flight leg, or that none of its flight legs has a time or
+ * an airport resource, which would all end with empty LegData and no CDMDates. Any other message, including the
+ * ones the scanner cannot read, goes through the full parsing.
+ *
+ * <p>A message from an airline without a registered processor is still counted as an E0001 error and under the other
+ * airline, as when it is parsed. The discarded messages are not validated against SOFI.xsd though, so an invalid one
+ * is counted as dropped instead of as an E0002 error. The pre-filter is therefore disabled by default
+ * (sofi.prefilter.enabled).
+ */
+@Slf4j
+@ApplicationScoped
+@SuppressWarnings("unused")
+public class SofiPreFilter {
+
+    @Inject
+    private AirlineProcessorRegistry airlineProcessorRegistry;
+
+    @Inject
+    private PipelineMetrics pipelineMetrics;
+
+    @ConfigProperty(name = "sofi.prefilter.enabled", defaultValue = "false")
+    private boolean enabled;
+
+    /**
+     * Tells whether the message can be discarded, and counts it when it can
+     *
+     * @param message  the SOAP message
+     * @param recordId id of the input SQS record
+     * @return why the message is discarded, null if it is to be processed
+     */
+    public DropReason check(String message, String recordId) {
+        if (!enabled) {
+            return null;
+        }
+        long preFilterStart = pipelineMetrics.start();
+        SofiMessageSummary summary = SofiMessageScanner.scan(message);
+        DropReason dropReason = null;
+        if (summary.isComplete()) {
+            if (airlineProcessorRegistry.getRoute(summary.getAirlineCode()) == null) {
+                dropReason = DropReason.UNKNOWN_AIRLINE;
+            } else if (summary.getFlightLegs() == 0) {
+                dropReason = DropReason.NO_FLIGHT_LEG;
+            } else if (!summary.isTimes() && !summary.isResources()) {
+                dropReason = DropReason.NO_LEG_DATA;
+            }
+        }
+        pipelineMetrics.recordStage(PipelineStage.PREFILTER, preFilterStart);
+        if (dropReason != null) {
+            pipelineMetrics.incrementDropped(dropReason);
+            if (dropReason == DropReason.UNKNOWN_AIRLINE) {
+                pipelineMetrics.incrementAirline(null);
+                pipelineMetrics.incrementError(ErrorCodes.E0001);
+            }
+            log.info(" Record {} from {} ({}-{}) discarded before parsing, it produces no output: {}", recordId,
+                    summary.getAirlineCode(), summary.getDepartureAirportCode(), summary.getArrivalAirportCode(),
+                    dropReason.getTag());
+        }
+        return dropReason;
+    }
+}
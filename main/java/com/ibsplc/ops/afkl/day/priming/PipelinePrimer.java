@@ -0,0 +1,142 @@
+package com.ibsplc.ops.afkl.day.priming;
+
+import com.amazonaws.services.lambda.runtime.events.SQSEvent;
+import com.ibsplc.ops.afkl.day.dedup.MessageDeduplicator;
+import com.ibsplc.ops.afkl.day.dedup.OutputChangeDetector;
+import com.ibsplc.ops.afkl.day.events.SOFIByAFKLSqsConsumer;
+import com.ibsplc.ops.afkl.day.metrics.PipelineMetrics;
+import com.ibsplc.ops.afkl.day.publisher.SOFIByAFKLPublisher;
+import com.ibsplc.ops.afkl.day.util.FlightKeyUtil;
+import com.ibsplc.ops.afkl.day.util.InboundSofiMessage;
+import com.ibsplc.ops.afkl.day.util.XmlParserUtil;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Warms the whole pipeline before the SnapStart (CRaC) checkpoint, so that the restored instances start with the
+ * classes loaded, the XML infrastructure built and the hot paths compiled.
+ *
+ * <p>The synthetic AF and KL messages embedded under priming/ are pushed through the consumer with the publisher in
+ * dry run, the deduplication bypassed and the metrics recorded to a throwaway registry. Only in-process state is
+ * warmed: no request is sent to the deduplication store and the priming records are not reported. After every pass
+ * the outputs of their flights are forgotten, so that each pass runs the full pipeline and nothing of the priming
+ * remains once the real messages arrive.
+ */
+@Slf4j
+@ApplicationScoped
+@SuppressWarnings("unused")
+public class PipelinePrimer implements Resource {
+
+    private static final String[] PRIMING_MESSAGES = {"priming/af-sofi.xml", "priming/kl-sofi.xml"};
+
+    @Inject
+    private SOFIByAFKLSqsConsumer sofiByAFKLSqsConsumer;
+
+    @Inject
+    private SOFIByAFKLPublisher sofiByAFKLPublisher;
+
+    @Inject
+    private XmlParserUtil xmlParserUtil;
+
+    @Inject
+    private MessageDeduplicator messageDeduplicator;
+
+    @Inject
+    private OutputChangeDetector outputChangeDetector;
+
+    @Inject
+    private PipelineMetrics pipelineMetrics;
+
+    @ConfigProperty(name = "sofi.priming.enabled", defaultValue = "true")
+    private boolean enabled;
+
+    @ConfigProperty(name = "sofi.priming.iterations", defaultValue = "200")
+    private int iterations;
+
+    void onStart(@Observes StartupEvent startupEvent) {
+        if (enabled) {
+            Core.getGlobalContext().register(this);
+        }
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) {
+        prime();
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) {
+        log.info(" Restored from the primed snapshot");
+    }
+
+    /**
+     * Runs the priming messages through the pipeline, without publishing them
+     */
+    public void prime() {
+        long primingStart = System.nanoTime();
+        List<String> messages = new ArrayList<>(PRIMING_MESSAGES.length);
+        List<String> flightKeys = new ArrayList<>(PRIMING_MESSAGES.length);
+        sofiByAFKLPublisher.setDryRun(true);
+        messageDeduplicator.setPriming(true);
+        pipelineMetrics.setPriming(true);
+        try {
+            for (String primingMessage : PRIMING_MESSAGES) {
+                String message = readMessage(primingMessage);
+                InboundSofiMessage inboundSofiMessage = xmlParserUtil.parseInboundSofiMessage(message);
+                messages.add(message);
+                flightKeys.add(FlightKeyUtil.getFlightKey(inboundSofiMessage.getSendOperationalFlightInternalEvent()));
+            }
+            for (int i = 0; i < iterations; i++) {
+                sofiByAFKLSqsConsumer.handleRequest(toSqsEvent(messages, i), null);
+                flightKeys.forEach(outputChangeDetector::forget);
+            }
+        } catch (Exception exception) {
+            log.error(" Priming of the pipeline failed, the snapshot is taken without it", exception);
+        } finally {
+            sofiByAFKLPublisher.setDryRun(false);
+            messageDeduplicator.setPriming(false);
+            pipelineMetrics.setPriming(false);
+        }
+        pipelineMetrics.recordPriming(System.nanoTime() - primingStart);
+        log.info(" Pipeline primed with {} passes in {} ms", iterations,
+                (System.nanoTime() - primingStart) / 1_000_000);
+    }
+
+    private static SQSEvent toSqsEvent(List<String> messages, int iteration) {
+        List<SQSEvent.SQSMessage> records = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            SQSEvent.SQSMessage sqsMessage = new SQSEvent.SQSMessage();
+            sqsMessage.setMessageId("priming-" + iteration + "-" + i);
+            sqsMessage.setBody(messages.get(i));
+            records.add(sqsMessage);
+        }
+        SQSEvent sqsEvent = new SQSEvent();
+        sqsEvent.setRecords(records);
+        return sqsEvent;
+    }
+
+    private static String readMessage(String resource) {
+        try (InputStream inputStream = Thread.currentThread().getContextClassLoader().getResourceAsStream(resource)) {
+            if (inputStream == null) {
+                throw new IllegalStateException("Priming message not found: " + resource);
+            }
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.ibsplc.ops.afkl.day.processor;
+
+import com.ibsplc.si.event.schema.sofi.SendOperationalFlightInternalEvent;
+import com.ibsplc.si.event.schema.sofi.SoapHeader;
+
+import javax.xml.bind.JAXBException;
+
+/**
+ * Transformation of the SOFI messages of one airline. Every CDI bean implementing it is registered in the
+ * {@link AirlineProcessorRegistry} under its airline code, so that a new carrier only needs a new implementation.
+ */
+public interface AirlineProcessor {
+
+    /**
+     * @return the airline code of the flights handled by this processor, as found in the flight identifier
+     */
+    String getAirlineCode();
+
+    /**
+     * Process the received SendOperationalFlightInternalEvent and hands its outputs to the publisher
+     *
+     * @param sendOperationalFlightInternalEvent event
+     * @param soapHeader                         header of the received message
+     * @param recordId                           id of the input SQS record
+     * @throws JAXBException if an error occurs while generating the output xml
+     */
+    void processSendOperationalFlightInternalEvent(SendOperationalFlightInternalEvent sendOperationalFlightInternalEvent,
+                                                   SoapHeader soapHeader, String recordId) throws JAXBException;
+}
@@ -0,0 +1,107 @@
+package com.ibsplc.ops.afkl.day.processor;
+
+import com.ibsplc.ops.afkl.day.metrics.PipelineMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routes of the SOFI messages, one per airline code, built at startup from the {@link AirlineProcessor} beans.
+ *
+ * <p>With sofi.route.concurrency above 0, each route gets its own executor with that many threads and a queue of
+ * sofi.route.queue.capacity flights, so that the backlog of one airline cannot delay the flights of another. Both
+ * can be overridden per airline with sofi.route.&lt;airline code&gt;.concurrency and
+ * sofi.route.&lt;airline code&gt;.queue.capacity.
+ */
+@Slf4j
+@ApplicationScoped
+@SuppressWarnings("unused")
+public class AirlineProcessorRegistry {
+
+    private static final String ROUTE_PREFIX = "sofi.route.";
+    private static final String CONCURRENCY_SUFFIX = ".concurrency";
+    private static final String QUEUE_CAPACITY_SUFFIX = ".queue.capacity";
+
+    @Inject
+    private Instance<AirlineProcessor> airlineProcessors;
+
+    @Inject
+    private PipelineMetrics pipelineMetrics;
+
+    @Inject
+    private Config config;
+
+    @ConfigProperty(name = "sofi.route.concurrency", defaultValue = "0")
+    private int concurrency;
+
+    @ConfigProperty(name = "sofi.route.queue.capacity", defaultValue = "100")
+    private int queueCapacity;
+
+    private final Map<String, AirlineRoute> routes = new HashMap<>();
+
+    @PostConstruct
+    void init() {
+        for (AirlineProcessor airlineProcessor : airlineProcessors) {
+            String airlineCode = airlineProcessor.getAirlineCode();
+            register(airlineProcessor,
+                    config.getOptionalValue(ROUTE_PREFIX + airlineCode + CONCURRENCY_SUFFIX, Integer.class)
+                            .orElse(concurrency),
+                    config.getOptionalValue(ROUTE_PREFIX + airlineCode + QUEUE_CAPACITY_SUFFIX, Integer.class)
+                            .orElse(queueCapacity));
+        }
+        log.info(" Airline routes registered: {}", routes.keySet());
+    }
+
+    @PreDestroy
+    void destroy() {
+        routes.values().stream()
+                .map(AirlineRoute::getExecutor)
+                .filter(Objects::nonNull)
+                .forEach(ThreadPoolExecutor::shutdown);
+    }
+
+    /**
+     * Registers the route of an airline, replacing any previous one. Only meant to be called at startup.
+     *
+     * @param airlineProcessor the processor of the airline
+     * @param routeConcurrency number of threads of the route, 0 to share the record workers of the consumer
+     * @param routeQueueCapacity number of flights waiting for a thread of the route
+     */
+    public void register(AirlineProcessor airlineProcessor, int routeConcurrency, int routeQueueCapacity) {
+        String airlineCode = airlineProcessor.getAirlineCode();
+        ThreadPoolExecutor executor = null;
+        if (routeConcurrency > 0) {
+            executor = new ThreadPoolExecutor(routeConcurrency, routeConcurrency, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(Math.max(1, routeQueueCapacity)), runnable -> {
+                Thread thread = new Thread(runnable, "sofi-route-" + airlineCode);
+                thread.setDaemon(true);
+                return thread;
+            });
+            pipelineMetrics.registerRoute(airlineCode, executor);
+        }
+        AirlineRoute previousRoute = routes.put(airlineCode, new AirlineRoute(airlineCode, airlineProcessor, executor));
+        if (previousRoute != null && previousRoute.getExecutor() != null) {
+            previousRoute.getExecutor().shutdown();
+        }
+    }
+
+    /**
+     * @param airlineCode the airline code of the flight
+     * @return the route of the airline, null if no processor handles it
+     */
+    public AirlineRoute getRoute(String airlineCode) {
+        return airlineCode != null ? routes.get(airlineCode) : null;
+    }
+}
@@ -0,0 +1,21 @@
+package com.ibsplc.ops.afkl.day.processor;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * The processor of an airline with its bulkhead: the executor running the flights of the airline, with its own
+ * threads and bounded queue, or null when the airline shares the record workers of the consumer.
+ */
+@Getter
+@AllArgsConstructor
+public class AirlineRoute {
+
+    private final String airlineCode;
+
+    private final AirlineProcessor airlineProcessor;
+
+    private final ThreadPoolExecutor executor;
+}
@@ -1,13 +1,18 @@
 package com.ibsplc.ops.afkl.day.processor;
 
+import com.ibsplc.ops.afkl.day.dedup.OutputChangeDetector;
+import com.ibsplc.ops.afkl.day.enums.PipelineStage;
+import com.ibsplc.ops.afkl.day.mapper.FlightLegSnapshot;
+import com.ibsplc.ops.afkl.day.metrics.PipelineMetrics;
 import com.ibsplc.ops.afkl.day.publisher.SOFIByAFKLPublisher;
 import com.ibsplc.ops.afkl.day.service.SOFIByAFServiceImpl;
+import com.ibsplc.ops.afkl.day.util.FlightKeyUtil;
+import com.ibsplc.ops.afkl.day.util.PayloadLogger;
+import com.ibsplc.ops.afkl.day.util.ValidatedXml;
 import com.ibsplc.ops.afkl.day.util.XmlGenerationUtil;
-import com.ibsplc.ops.afkl.day.util.XmlValidationUtil;
 import com.ibsplc.si.event.schema.flightleg.notification.IATAAIDXFlightLegNotifRQ;
 import com.ibsplc.si.event.schema.sofi.SendOperationalFlightInternalEvent;
 import com.ibsplc.si.event.schema.sofi.SoapHeader;
-import com.ibsplc.si.framework.util.LoggerUtility;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
@@ -15,6 +20,8 @@ import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import javax.xml.bind.JAXBException;
 
+import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.AF;
+import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.AF_AIDX;
 import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.IATA_AIDX_FLIGHTLEGNOTIFRQ_OUTPUT_XSD;
 
 /**
@@ -23,7 +30,7 @@ import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.IATA_AIDX_FL
 @Slf4j
 @ApplicationScoped
 @SuppressWarnings("unused")
-public class SOFIByAFProcessor {
+public class SOFIByAFProcessor implements AirlineProcessor {
 
     @ConfigProperty(name = "sofi.aidx.af.output.sqs.url")
     private String afOutputSqsUrl;
@@ -34,30 +41,57 @@ public class SOFIByAFProcessor {
     @Inject
     private SOFIByAFKLPublisher sofiByAFKLPublisher;
 
+    @Inject
+    private PipelineMetrics pipelineMetrics;
+
+    @Inject
+    private OutputChangeDetector outputChangeDetector;
+
+    @Inject
+    private PayloadLogger payloadLogger;
+
+    @Override
+    public String getAirlineCode() {
+        return AF;
+    }
+
     /**
      * Process the received SendOperationalFlightInternalEvent and produces IATAAIDXFlightLegNotifRQ object
      *
      * @param sendOperationalFlightInternalEvent event
+     * @param recordId                           id of the input SQS record
      * @throws JAXBException if an error occurs while creating JAXBContext
      */
+    @Override
     public void processSendOperationalFlightInternalEvent
-    (SendOperationalFlightInternalEvent sendOperationalFlightInternalEvent, SoapHeader soapHeader) throws JAXBException {
+    (SendOperationalFlightInternalEvent sendOperationalFlightInternalEvent, SoapHeader soapHeader, String recordId)
+            throws JAXBException {
         log.info(" Transforming the received AF SOFI message to AIDX message");
+        long mappingStart = pipelineMetrics.start();
         IATAAIDXFlightLegNotifRQ iataAidxFlightLegNotifRQ = sofiByAFKLService.mapToIATAAIDXFlightLegNotifRQ(
-                sendOperationalFlightInternalEvent, soapHeader);
+                FlightLegSnapshot.ofAll(sendOperationalFlightInternalEvent), soapHeader);
+        pipelineMetrics.recordStage(PipelineStage.MAPPING, mappingStart);
         if (iataAidxFlightLegNotifRQ != null) {
-            String flightLegNotificationRQXml = XmlGenerationUtil.generateXmlFromObj(
-                    iataAidxFlightLegNotifRQ, IATAAIDXFlightLegNotifRQ.class
+            long marshallingStart = pipelineMetrics.start();
+            ValidatedXml flightLegNotificationRQ = XmlGenerationUtil.generateValidatedXmlFromObj(
+                    iataAidxFlightLegNotifRQ, IATAAIDXFlightLegNotifRQ.class, IATA_AIDX_FLIGHTLEGNOTIFRQ_OUTPUT_XSD
             );
+            pipelineMetrics.recordStage(PipelineStage.MARSHALLING, marshallingStart);
+            String flightLegNotificationRQXml = flightLegNotificationRQ.getXml();
+            if (!flightLegNotificationRQ.isValid()) {
+                log.error(" XSD validation error in the AF AIDX output message: {}. Hence, the following message will" +
+                                " not be published to the outbound SQS: {}", flightLegNotificationRQ.getValidationError(),
+                        payloadLogger.payload(flightLegNotificationRQXml));
+                return;
+            }
             log.info(" Successfully Transformed the received AF SOFI message to AIDX message");
-            boolean isOutputXmlValid = XmlValidationUtil.validateXMLAgainstXSD(flightLegNotificationRQXml,
-                    IATA_AIDX_FLIGHTLEGNOTIFRQ_OUTPUT_XSD);
-            if (isOutputXmlValid) {
-                sofiByAFKLPublisher.publish(flightLegNotificationRQXml, afOutputSqsUrl, "AF AIDX");
-            } else {
-                log.error(" XSD validation error in the AF AIDX output message. Hence, the following message will not" +
-                        " be published to the outbound SQS: {}", LoggerUtility.sanitizeMessage(flightLegNotificationRQXml));
+            if (outputChangeDetector.isUnchanged(FlightKeyUtil.getFlightKey(sendOperationalFlightInternalEvent),
+                    AF_AIDX, flightLegNotificationRQXml)) {
+                pipelineMetrics.incrementSuppressed(AF_AIDX);
+                log.info(" AF AIDX message unchanged since the previous one of the flight, it will not be published");
+                return;
             }
+            sofiByAFKLPublisher.publish(flightLegNotificationRQXml, afOutputSqsUrl, AF_AIDX, recordId);
         }
     }
 }
@@ -1,15 +1,20 @@
 package com.ibsplc.ops.afkl.day.processor;
 
+import com.ibsplc.ops.afkl.day.dedup.OutputChangeDetector;
+import com.ibsplc.ops.afkl.day.enums.PipelineStage;
+import com.ibsplc.ops.afkl.day.mapper.FlightLegSnapshot;
+import com.ibsplc.ops.afkl.day.metrics.PipelineMetrics;
 import com.ibsplc.ops.afkl.day.publisher.SOFIByAFKLPublisher;
 import com.ibsplc.ops.afkl.day.service.CDMByKLServiceImpl;
 import com.ibsplc.ops.afkl.day.service.SOFIByKLServiceImpl;
+import com.ibsplc.ops.afkl.day.util.FlightKeyUtil;
+import com.ibsplc.ops.afkl.day.util.PayloadLogger;
+import com.ibsplc.ops.afkl.day.util.ValidatedXml;
 import com.ibsplc.ops.afkl.day.util.XmlGenerationUtil;
-import com.ibsplc.ops.afkl.day.util.XmlValidationUtil;
 import com.ibsplc.si.event.schema.cdm.CDMFlightInfoType;
 import com.ibsplc.si.event.schema.flightleg.notification.IATAAIDXFlightLegNotifRQ;
 import com.ibsplc.si.event.schema.sofi.SendOperationalFlightInternalEvent;
 import com.ibsplc.si.event.schema.sofi.SoapHeader;
-import com.ibsplc.si.framework.util.LoggerUtility;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
@@ -18,16 +23,20 @@ import org.eclipse.microprofile.config.inject.ConfigProperty;
 import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
 import javax.xml.namespace.QName;
+import java.util.List;
 
 import static com.ibsplc.ops.afkl.day.constants.CDMByKLConstants.CDM_FLIGHT_INFO;
 import static com.ibsplc.ops.afkl.day.constants.CDMByKLConstants.CDM_FLIGHT_INFO_XSD;
 import static com.ibsplc.ops.afkl.day.constants.CDMByKLConstants.NAMESPACE_URI;
 import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.IATA_AIDX_FLIGHTLEGNOTIFRQ_OUTPUT_XSD;
+import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.KL;
+import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.KL_AIDX;
+import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.KL_CDM;
 
 @Slf4j
 @ApplicationScoped
 @SuppressWarnings("unused")
-public class SOFIByKLProcessor {
+public class SOFIByKLProcessor implements AirlineProcessor {
 
     @ConfigProperty(name = "sofi.aidx.kl.output.sqs.url")
     private String sofiAIDXOutputSqsURL;
@@ -44,55 +53,92 @@ public class SOFIByKLProcessor {
     @Inject
     private CDMByKLServiceImpl cdmByKLServiceImpl;
 
+    @Inject
+    private PipelineMetrics pipelineMetrics;
+
+    @Inject
+    private OutputChangeDetector outputChangeDetector;
+
+    @Inject
+    private PayloadLogger payloadLogger;
+
+    @Override
+    public String getAirlineCode() {
+        return KL;
+    }
+
     /**
      * Process the received SendOperationalFlightInternalEvent and produces IATAAIDXFlightLegNotifRQ
      * and CDMFlightInfoType object
      *
      * @param sendOperationalFlightInternalEvent event
+     * @param recordId                           id of the input SQS record
      * @throws Exception if an error occurs while creating JAXBContext
      */
+    @Override
     public void processSendOperationalFlightInternalEvent
-    (SendOperationalFlightInternalEvent sendOperationalFlightInternalEvent, SoapHeader soapHeader) throws JAXBException {
+    (SendOperationalFlightInternalEvent sendOperationalFlightInternalEvent, SoapHeader soapHeader, String recordId)
+            throws JAXBException {
         log.info(" Transforming the received KL SOFI message to AIDX & CDM message");
+        long mappingStart = pipelineMetrics.start();
+        List<FlightLegSnapshot> flightLegSnapshots = FlightLegSnapshot.ofAll(sendOperationalFlightInternalEvent);
         IATAAIDXFlightLegNotifRQ iataAidxFlightLegNotifRQ =
-                sofiByKLService.mapToIATAAIDXFlightLegNotifRQ(sendOperationalFlightInternalEvent, soapHeader);
-        CDMFlightInfoType cdmFlightInfoType =
-                cdmByKLServiceImpl.mapToCDMFlightInfoType(sendOperationalFlightInternalEvent);
+                sofiByKLService.mapToIATAAIDXFlightLegNotifRQ(flightLegSnapshots, soapHeader);
+        List<CDMFlightInfoType> cdmFlightInfoTypes = cdmByKLServiceImpl.mapToCDMFlightInfoTypes(flightLegSnapshots);
+        pipelineMetrics.recordStage(PipelineStage.MAPPING, mappingStart);
+        String flightKey = FlightKeyUtil.getFlightKey(sendOperationalFlightInternalEvent);
         if (iataAidxFlightLegNotifRQ != null) {
-            String flightLegNotificationRQXml =
-                    XmlGenerationUtil.generateXmlFromObj(iataAidxFlightLegNotifRQ, IATAAIDXFlightLegNotifRQ.class);
-            validateXmlAndPublishToSqs(flightLegNotificationRQXml,
-                    IATA_AIDX_FLIGHTLEGNOTIFRQ_OUTPUT_XSD, "KL AIDX", sofiAIDXOutputSqsURL
-            );
+            long marshallingStart = pipelineMetrics.start();
+            ValidatedXml flightLegNotificationRQ = XmlGenerationUtil.generateValidatedXmlFromObj(
+                    iataAidxFlightLegNotifRQ, IATAAIDXFlightLegNotifRQ.class, IATA_AIDX_FLIGHTLEGNOTIFRQ_OUTPUT_XSD);
+            pipelineMetrics.recordStage(PipelineStage.MARSHALLING, marshallingStart);
+            publishIfValidToSqs(flightLegNotificationRQ, KL_AIDX, KL_AIDX, sofiAIDXOutputSqsURL, recordId, flightKey);
         }
-        if (cdmFlightInfoType != null) {
+        for (int legIndex = 0; legIndex < cdmFlightInfoTypes.size(); legIndex++) {
+            CDMFlightInfoType cdmFlightInfoType = cdmFlightInfoTypes.get(legIndex);
+            if (cdmFlightInfoType == null) {
+                continue;
+            }
             QName cdmFlightInfoTypeQName = new QName(NAMESPACE_URI, CDM_FLIGHT_INFO);
             JAXBElement<CDMFlightInfoType> jaxbElement =
                     new JAXBElement<>(cdmFlightInfoTypeQName, CDMFlightInfoType.class, cdmFlightInfoType);
-            String cdmFlightInfoTypeXml = XmlGenerationUtil.generateXmlFromObj(jaxbElement, CDMFlightInfoType.class);
-            validateXmlAndPublishToSqs(cdmFlightInfoTypeXml, CDM_FLIGHT_INFO_XSD, "KL CDM",
-                    sofiCDMOutputSqsURL);
+            long marshallingStart = pipelineMetrics.start();
+            ValidatedXml cdmFlightInfo = XmlGenerationUtil.generateValidatedXmlFromObj(jaxbElement,
+                    CDMFlightInfoType.class, CDM_FLIGHT_INFO_XSD);
+            pipelineMetrics.recordStage(PipelineStage.MARSHALLING, marshallingStart);
+            // Every flight leg has its own CDM message, the first one keeps the key of the single leg messages
+            String outputKey = legIndex == 0 ? KL_CDM : KL_CDM + "|" + (legIndex + 1);
+            publishIfValidToSqs(cdmFlightInfo, KL_CDM, outputKey, sofiCDMOutputSqsURL, recordId, flightKey);
         }
     }
 
     /**
-     * Validates the received message and publishes it to SQS
+     * Publishes the message validated while marshalling to SQS, unless it is invalid or unchanged since the previous
+     * message of the same type for the flight
      *
-     * @param message     output xml
-     * @param xsd         output XSD
-     * @param messageType messageType
-     * @param sqsUrl      outputSQSURl
+     * @param validatedXml output xml and its validation outcome
+     * @param messageType  messageType
+     * @param outputKey    key of the message among the output messages of the flight
+     * @param sqsUrl       outputSQSURl
+     * @param recordId     id of the input SQS record
+     * @param flightKey    key of the flight
      */
-    private void validateXmlAndPublishToSqs(String message, String xsd, String messageType, String sqsUrl) {
-
-        boolean isOutputXmlValid = XmlValidationUtil.validateXMLAgainstXSD(message, xsd);
-        if (isOutputXmlValid) {
-            sofiByAFKLPublisher.publish(message, sqsUrl, messageType);
-        } else {
-            log.error(" XSD validation error in the {} output message. Hence, the following message will not" +
-                    " be published to the outbound SQS: {}", messageType, LoggerUtility.sanitizeMessage(message));
+    private void publishIfValidToSqs(ValidatedXml validatedXml, String messageType, String outputKey, String sqsUrl,
+                                     String recordId, String flightKey) {
+        String message = validatedXml.getXml();
+        if (!validatedXml.isValid()) {
+            log.error(" XSD validation error in the {} output message: {}. Hence, the following message will not" +
+                            " be published to the outbound SQS: {}", messageType, validatedXml.getValidationError(),
+                    payloadLogger.payload(message));
+            return;
         }
-
+        if (outputChangeDetector.isUnchanged(flightKey, outputKey, message)) {
+            pipelineMetrics.incrementSuppressed(messageType);
+            log.info(" {} message unchanged since the previous one of the flight, it will not be published",
+                    messageType);
+            return;
+        }
+        sofiByAFKLPublisher.publish(message, sqsUrl, messageType, recordId);
     }
 
 }
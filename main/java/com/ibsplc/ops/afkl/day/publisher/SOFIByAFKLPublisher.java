@@ -1,13 +1,58 @@
 package com.ibsplc.ops.afkl.day.publisher;
 
+import com.ibsplc.ops.afkl.day.claimcheck.ClaimCheckService;
+import com.ibsplc.ops.afkl.day.enums.PipelineStage;
+import com.ibsplc.ops.afkl.day.metrics.PipelineMetrics;
+import com.ibsplc.ops.afkl.day.util.PayloadLogger;
 import com.ibsplc.si.framework.messagehandler.SqsMessageOperationService;
-import com.ibsplc.si.framework.util.LoggerUtility;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ObjectUtils;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
 import software.amazon.awssdk.services.sqs.model.SendMessageResponse;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.SQS_MAX_BATCH_ENTRIES;
+import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.SQS_MAX_BATCH_PAYLOAD_BYTES;
+
+/**
+ * Publishes the output messages to SQS.
+ *
+ * <p>When batching is enabled, the messages are accumulated per destination queue across all the records of an
+ * invocation and sent with SendMessageBatch, whenever a batch is full (10 entries or 256 KB) and when
+ * {@link #flush()} is called at the end of the invocation. Failed entries are mapped back to the input record they
+ * were produced from.
+ *
+ * <p>When asynchronous publishing is enabled, the sends go through the shared {@link SqsAsyncClient} and never
+ * block the processing thread; {@link #flush()} joins all the pending sends of the invocation.
+ *
+ * <p>When the claim check is enabled, the oversized messages are replaced by their claim check before being sent.
+ * A message still larger than the SQS limit of 256 KB is never accepted by SQS: it is rejected up front instead of
+ * failing its input record, so that the record is not redelivered until it reaches the dead-letter queue.
+ *
+ * <p>Batching is disabled by default (sofi.publisher.batch.enabled); the batches are sent through the
+ * {@link SqsClient} bean, as {@link SqsMessageOperationService} only sends single messages.
+ */
 @Slf4j
 @ApplicationScoped
 @SuppressWarnings("unused")
@@ -16,20 +61,284 @@ public class SOFIByAFKLPublisher {
     @Inject
     private SqsMessageOperationService sqsMessageOperationService;
 
+    @Inject
+    private SqsClient sqsClient;
+
+    @Inject
+    private SqsAsyncClient sqsAsyncClient;
+
+    @Inject
+    private PipelineMetrics pipelineMetrics;
+
+    @Inject
+    private PayloadLogger payloadLogger;
+
+    @Inject
+    private ClaimCheckService claimCheckService;
+
+    @ConfigProperty(name = "sofi.publisher.batch.enabled", defaultValue = "false")
+    private boolean batchEnabled;
+
+    @ConfigProperty(name = "sofi.publisher.async.enabled", defaultValue = "false")
+    private boolean asyncEnabled;
+
+    private final Map<String, List<OutboundMessage>> pendingMessages = new ConcurrentHashMap<>();
+
+    private final Set<String> failedRecordIds = ConcurrentHashMap.newKeySet();
+
+    private final Queue<CompletableFuture<?>> pendingSends = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean dryRun;
+
+    /**
+     * In dry run the messages are dropped instead of being published, used to prime the pipeline
+     *
+     * @param dryRun true to drop the messages
+     */
+    public void setDryRun(boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+
     /**
      * this method id used for publishing the message to output SQS
      */
     public void publish(String message, String sqsUrl, String messageType) {
+        publish(message, sqsUrl, messageType, null);
+    }
+
+    /**
+     * this method id used for publishing the message produced from the given input record to output SQS.
+     * With batching enabled the message is only sent once its batch is full or on {@link #flush()}.
+     *
+     * @param message     output xml
+     * @param sqsUrl      output SQS url
+     * @param messageType messageType
+     * @param recordId    id of the input record the message was produced from
+     */
+    public void publish(String message, String sqsUrl, String messageType, String recordId) {
+        if (dryRun) {
+            log.debug(" Dry run, the {} message is not published", messageType);
+            return;
+        }
+        pipelineMetrics.recordOutput(messageType, message.length());
+        try {
+            message = claimCheckService.checkIn(message, messageType);
+        } catch (Exception exception) {
+            log.error(" An error occurred while storing the {} output message for its claim check", messageType,
+                    exception);
+            if (recordId != null) {
+                failedRecordIds.add(recordId);
+            }
+            return;
+        }
+        int size = utf8Length(message);
+        if (size > SQS_MAX_BATCH_PAYLOAD_BYTES) {
+            log.error(" The {} output message of {} bytes is larger than the SQS limit of {} bytes and is not"
+                    + " published, enable the claim check to publish it", messageType, size,
+                    SQS_MAX_BATCH_PAYLOAD_BYTES);
+            return;
+        }
+        if (!batchEnabled) {
+            if (asyncEnabled) {
+                pendingSends.add(publishAsync(message, sqsUrl, messageType, recordId));
+            } else if (!send(message, sqsUrl, messageType) && recordId != null) {
+                failedRecordIds.add(recordId);
+            }
+            return;
+        }
+        OutboundMessage outboundMessage = new OutboundMessage(message, messageType, recordId, size);
+        List<OutboundMessage> batch = null;
+        List<OutboundMessage> pending = pendingMessages.computeIfAbsent(sqsUrl, url -> new ArrayList<>());
+        synchronized (pending) {
+            int pendingBytes = pending.stream().mapToInt(OutboundMessage::getSize).sum();
+            if (!pending.isEmpty() && pendingBytes + outboundMessage.getSize() > SQS_MAX_BATCH_PAYLOAD_BYTES) {
+                batch = new ArrayList<>(pending);
+                pending.clear();
+            }
+            pending.add(outboundMessage);
+            if (batch == null && pending.size() >= SQS_MAX_BATCH_ENTRIES) {
+                batch = new ArrayList<>(pending);
+                pending.clear();
+            }
+        }
+        if (batch != null) {
+            sendBatch(sqsUrl, batch);
+        }
+    }
+
+    /**
+     * this method id used for publishing the message to output SQS without blocking the calling thread
+     *
+     * @param message     output xml
+     * @param sqsUrl      output SQS url
+     * @param messageType messageType
+     * @param recordId    id of the input record the message was produced from
+     * @return completes with true once the message is published, false if it could not be published
+     */
+    public CompletableFuture<Boolean> publishAsync(String message, String sqsUrl, String messageType,
+                                                   String recordId) {
+        log.info(" Publishing {} message... ", messageType);
+        long publishStart = pipelineMetrics.start();
+        return sqsAsyncClient.sendMessage(SendMessageRequest.builder()
+                        .queueUrl(sqsUrl)
+                        .messageBody(message)
+                        .build())
+                .handle((response, throwable) -> {
+                    pipelineMetrics.recordStage(PipelineStage.PUBLISH, publishStart);
+                    boolean published = handleResponse(response, throwable, message, messageType);
+                    if (!published && recordId != null) {
+                        failedRecordIds.add(recordId);
+                    }
+                    return published;
+                });
+    }
+
+    /**
+     * Sends all the pending messages, waits for all the pending sends and returns the ids of the input records for
+     * which at least one output could not be published since the previous flush.
+     *
+     * @return ids of the input records with failed outputs
+     */
+    public Set<String> flush() {
+        for (Map.Entry<String, List<OutboundMessage>> entry : pendingMessages.entrySet()) {
+            List<OutboundMessage> batch;
+            List<OutboundMessage> pending = entry.getValue();
+            synchronized (pending) {
+                batch = new ArrayList<>(pending);
+                pending.clear();
+            }
+            if (!batch.isEmpty()) {
+                sendBatch(entry.getKey(), batch);
+            }
+        }
+        CompletableFuture<?> pendingSend;
+        while ((pendingSend = pendingSends.poll()) != null) {
+            pendingSend.join();
+        }
+        Set<String> failed = new HashSet<>(failedRecordIds);
+        failedRecordIds.removeAll(failed);
+        return failed;
+    }
+
+    private boolean send(String message, String sqsUrl, String messageType) {
         log.info(" Publishing {} message... ", messageType);
+        long publishStart = pipelineMetrics.start();
         try {
             SendMessageResponse response = sqsMessageOperationService.sendMessage(sqsUrl, message);
-            if (ObjectUtils.isNotEmpty(response) && response.sdkHttpResponse().isSuccessful()) {
-                log.info(" Published {} message to SQS: {}", messageType, LoggerUtility.sanitizeMessage(message));
-            } else {
-                log.error(" Failed to publish the {} output message to SQS", messageType);
+            return handleResponse(response, null, message, messageType);
+        } catch (Exception exception) {
+            return handleResponse(null, exception, message, messageType);
+        } finally {
+            pipelineMetrics.recordStage(PipelineStage.PUBLISH, publishStart);
+        }
+    }
+
+    private boolean handleResponse(SendMessageResponse response, Throwable throwable, String message,
+                                   String messageType) {
+        if (throwable != null) {
+            log.error(" An error occurred while publishing the {} output message to SQS", messageType, throwable);
+        } else if (ObjectUtils.isNotEmpty(response) && response.sdkHttpResponse().isSuccessful()) {
+            if (payloadLogger.isEnabled()) {
+                log.info(" Published {} message to SQS: {}", messageType, payloadLogger.payload(message));
             }
+            return true;
+        } else {
+            log.error(" Failed to publish the {} output message to SQS", messageType);
+        }
+        return false;
+    }
+
+    private void sendBatch(String sqsUrl, List<OutboundMessage> batch) {
+        log.info(" Publishing a batch of {} messages... ", batch.size());
+        List<SendMessageBatchRequestEntry> entries = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            entries.add(SendMessageBatchRequestEntry.builder()
+                    .id(String.valueOf(i))
+                    .messageBody(batch.get(i).getMessage())
+                    .build());
+        }
+        SendMessageBatchRequest request = SendMessageBatchRequest.builder()
+                .queueUrl(sqsUrl)
+                .entries(entries)
+                .build();
+        long publishStart = pipelineMetrics.start();
+        if (asyncEnabled) {
+            pendingSends.add(sqsAsyncClient.sendMessageBatch(request)
+                    .handle((response, throwable) -> {
+                        pipelineMetrics.recordStage(PipelineStage.PUBLISH, publishStart);
+                        handleBatchResponse(batch, response, throwable);
+                        return null;
+                    }));
+            return;
+        }
+        try {
+            handleBatchResponse(batch, sqsClient.sendMessageBatch(request), null);
         } catch (Exception exception) {
-            log.error(" An error occurred while publishing the {} output message to SQS", messageType, exception);
+            handleBatchResponse(batch, null, exception);
+        } finally {
+            pipelineMetrics.recordStage(PipelineStage.PUBLISH, publishStart);
         }
     }
+
+    private void handleBatchResponse(List<OutboundMessage> batch, SendMessageBatchResponse response,
+                                     Throwable throwable) {
+        if (throwable != null) {
+            log.error(" An error occurred while publishing a batch of {} output messages to SQS", batch.size(),
+                    throwable);
+            batch.forEach(this::markFailed);
+            return;
+        }
+        if (payloadLogger.isEnabled()) {
+            for (SendMessageBatchResultEntry successful : response.successful()) {
+                OutboundMessage outboundMessage = batch.get(Integer.parseInt(successful.id()));
+                log.info(" Published {} message to SQS: {}", outboundMessage.getMessageType(),
+                        payloadLogger.payload(outboundMessage.getMessage()));
+            }
+        }
+        for (BatchResultErrorEntry failed : response.failed()) {
+            OutboundMessage outboundMessage = batch.get(Integer.parseInt(failed.id()));
+            log.error(" Failed to publish the {} output message to SQS: {} {}", outboundMessage.getMessageType(),
+                    failed.code(), failed.message());
+            markFailed(outboundMessage);
+        }
+    }
+
+    private void markFailed(OutboundMessage outboundMessage) {
+        if (outboundMessage.getRecordId() != null) {
+            failedRecordIds.add(outboundMessage.getRecordId());
+        }
+    }
+
+    /**
+     * @return the size of the message in UTF-8 bytes, computed without encoding it
+     */
+    private static int utf8Length(String message) {
+        int length = message.length();
+        for (int i = 0; i < message.length(); i++) {
+            char character = message.charAt(i);
+            if (character >= 0x800) {
+                // a surrogate pair is 4 bytes for its 2 chars, any other char from 0x800 is 3 bytes
+                length += Character.isSurrogate(character) ? 1 : 2;
+            } else if (character >= 0x80) {
+                length++;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * An output message waiting to be sent in a batch
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class OutboundMessage {
+
+        private final String message;
+
+        private final String messageType;
+
+        private final String recordId;
+
+        private final int size;
+    }
 }
@@ -1,13 +1,15 @@
 package com.ibsplc.ops.afkl.day.service;
 
 import com.ibsplc.ops.afkl.day.mapper.CDMByKLMapper;
+import com.ibsplc.ops.afkl.day.mapper.FlightLegSnapshot;
 import com.ibsplc.si.event.schema.cdm.CDMFlightInfoType;
-import com.ibsplc.si.event.schema.sofi.SendOperationalFlightInternalEvent;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import javax.xml.bind.JAXBElement;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -21,14 +23,27 @@ public class CDMByKLServiceImpl {
     @ConfigProperty(name = "cdmflightinfotype.dates.cdmdates.result")
     private String result;
 
+    @Inject
+    private FlightLegMappingService flightLegMappingService;
+
+    /**
+     * Maps every flight leg snapshot of an event to a CDMFlightInfoType Object
+     *
+     * @param flightLegSnapshots source objects, one per flight leg
+     * @return the CDMFlightInfoType of each flight leg in flight leg order, null for the flight legs without CDMDates
+     */
+    public List<CDMFlightInfoType> mapToCDMFlightInfoTypes(List<FlightLegSnapshot> flightLegSnapshots) {
+        return flightLegMappingService.mapLegs(flightLegSnapshots, this::mapToCDMFlightInfoType);
+    }
+
     /**
-     * Maps the SendOperationalFlightInternalEvent to CDMFlightInfoType Object
+     * Maps the flight leg snapshot to CDMFlightInfoType Object
      *
-     * @param sendOperationalFlightInternalEvent source object
+     * @param flightLegSnapshot source object
      * @return CDMFlightInfoType cdm flight info type
      */
-    public CDMFlightInfoType mapToCDMFlightInfoType(SendOperationalFlightInternalEvent sendOperationalFlightInternalEvent) {
-        CDMFlightInfoType cdmFlightInfoType = CDMByKLMapper.INSTANCE.mapToCDMFlightInfoType(sendOperationalFlightInternalEvent, result);
+    public CDMFlightInfoType mapToCDMFlightInfoType(FlightLegSnapshot flightLegSnapshot) {
+        CDMFlightInfoType cdmFlightInfoType = CDMByKLMapper.INSTANCE.mapToCDMFlightInfoType(flightLegSnapshot, result);
         boolean present = Optional.ofNullable(cdmFlightInfoType).map(CDMFlightInfoType::getDates).map(JAXBElement::getValue).map(CDMFlightInfoType.Dates::getCdmDate).filter(list -> !list.isEmpty()).isPresent();
         if (present) {
             return cdmFlightInfoType;
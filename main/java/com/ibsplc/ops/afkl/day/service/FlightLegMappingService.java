@@ -0,0 +1,85 @@
+package com.ibsplc.ops.afkl.day.service;
+
+import com.ibsplc.ops.afkl.day.mapper.FlightLegSnapshot;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Runs a mapping on every flight leg of an event. The legs of the events with at least sofi.mapping.parallel.min.legs
+ * legs are mapped in parallel on sofi.mapping.parallelism threads, the others on the calling thread.
+ */
+@Slf4j
+@ApplicationScoped
+@SuppressWarnings("unused")
+public class FlightLegMappingService {
+
+    @ConfigProperty(name = "sofi.mapping.parallel.min.legs", defaultValue = "4")
+    private int parallelMinLegs;
+
+    @ConfigProperty(name = "sofi.mapping.parallelism", defaultValue = "4")
+    private int parallelism;
+
+    private ExecutorService legExecutor;
+
+    @PostConstruct
+    void init() {
+        if (parallelism > 1) {
+            legExecutor = Executors.newFixedThreadPool(parallelism, runnable -> {
+                Thread thread = new Thread(runnable, "sofi-leg-worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @PreDestroy
+    void destroy() {
+        if (legExecutor != null) {
+            legExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Maps every flight leg
+     *
+     * @param flightLegSnapshots the flight legs of the event
+     * @param legMapper          the mapping of one flight leg
+     * @param <T>                the mapped type
+     * @return the results in flight leg order
+     */
+    public <T> List<T> mapLegs(List<FlightLegSnapshot> flightLegSnapshots, Function<FlightLegSnapshot, T> legMapper) {
+        List<T> results = new ArrayList<>(flightLegSnapshots.size());
+        if (legExecutor == null || flightLegSnapshots.size() < parallelMinLegs) {
+            for (FlightLegSnapshot flightLegSnapshot : flightLegSnapshots) {
+                results.add(legMapper.apply(flightLegSnapshot));
+            }
+            return results;
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(flightLegSnapshots.size());
+        for (FlightLegSnapshot flightLegSnapshot : flightLegSnapshots) {
+            futures.add(CompletableFuture.supplyAsync(() -> legMapper.apply(flightLegSnapshot), legExecutor));
+        }
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) exception.getCause();
+            }
+            throw exception;
+        }
+        return results;
+    }
+}
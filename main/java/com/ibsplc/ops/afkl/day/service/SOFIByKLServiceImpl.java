@@ -1,36 +1,53 @@
 package com.ibsplc.ops.afkl.day.service;
 
+import com.ibsplc.ops.afkl.day.mapper.FlightLegSnapshot;
 import com.ibsplc.ops.afkl.day.mapper.SOFIByKLMapper;
+import com.ibsplc.si.event.schema.flightleg.notification.FlightLegType;
 import com.ibsplc.si.event.schema.flightleg.notification.IATAAIDXFlightLegNotifRQ;
-import com.ibsplc.si.event.schema.sofi.SendOperationalFlightInternalEvent;
 import com.ibsplc.si.event.schema.sofi.SoapHeader;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.List;
+
 @Slf4j
 @ApplicationScoped
 public class SOFIByKLServiceImpl {
 
+    @Inject
+    private FlightLegMappingService flightLegMappingService;
+
     /**
-     * Maps the SendOperationalFlightInternalEvent to IATAAIDXFlightLegNotifRQ Object
+     * Maps the flight leg snapshots of an event to one IATAAIDXFlightLegNotifRQ Object, leaving out the flight legs
+     * with empty LegData
      *
-     * @param sendOperationalFlightInternalEvent source object
-     * @return IATAAIDXFlightLegNotifRQ
+     * @param flightLegSnapshots source objects, one per flight leg
+     * @return IATAAIDXFlightLegNotifRQ, null when no flight leg has LegData
      */
     public IATAAIDXFlightLegNotifRQ mapToIATAAIDXFlightLegNotifRQ
-    (SendOperationalFlightInternalEvent sendOperationalFlightInternalEvent, SoapHeader soapHeader) {
-        IATAAIDXFlightLegNotifRQ iataAidxFlightLegNotifRQ =
-                SOFIByKLMapper.INSTANCE.mapToIATAAIDXFlightLegNotifRQ(sendOperationalFlightInternalEvent, soapHeader);
+    (List<FlightLegSnapshot> flightLegSnapshots, SoapHeader soapHeader) {
+        List<FlightLegType> flightLegs = flightLegMappingService.mapLegs(flightLegSnapshots,
+                SOFIByKLMapper.INSTANCE::populateFlightLeg);
 
-        // Check if LegData is empty
-        if (!iataAidxFlightLegNotifRQ.getFlightLeg().isEmpty() &&
-                iataAidxFlightLegNotifRQ.getFlightLeg().get(0).getLegData() != null &&
-                iataAidxFlightLegNotifRQ.getFlightLeg().get(0).getLegData().getAirportResources().isEmpty() &&
-                iataAidxFlightLegNotifRQ.getFlightLeg().get(0).getLegData().getOperationTime().isEmpty()) {
+        // Leave out the flight legs whose LegData is empty
+        flightLegs.removeIf(SOFIByKLServiceImpl::hasEmptyLegData);
+        if (flightLegs.isEmpty()) {
             log.error("LegData is empty. AIDX message will not be processed further.");
             return null;
         }
-        return iataAidxFlightLegNotifRQ;
+        return SOFIByKLMapper.INSTANCE.mapToIATAAIDXFlightLegNotifRQ(flightLegSnapshots.get(0), soapHeader,
+                flightLegs);
     }
-}
 
+    private static boolean hasEmptyLegData(FlightLegType flightLeg) {
+        if (flightLeg.getLegData() != null &&
+                flightLeg.getLegData().getAirportResources().isEmpty() &&
+                flightLeg.getLegData().getOperationTime().isEmpty()) {
+            log.warn("LegData of flight leg {} is empty, the flight leg is left out.",
+                    flightLeg.getLegIdentifier() != null ? flightLeg.getLegIdentifier().getFlightNumber() : null);
+            return true;
+        }
+        return false;
+    }
+}
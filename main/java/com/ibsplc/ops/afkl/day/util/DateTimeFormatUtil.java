@@ -0,0 +1,78 @@
+package com.ibsplc.ops.afkl.day.util;
+
+import com.ibsplc.ops.afkl.day.enums.TimeFormat;
+
+import javax.xml.datatype.DatatypeConstants;
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Conversion of the SOFI XMLGregorianCalendar values read straight from their fields, without going through
+ * GregorianCalendar and ZonedDateTime. The local date and time are the ones toGregorianCalendar() gives: the lexical
+ * value, undefined fields taking their minimum and a value without timezone being in the default one.
+ */
+public final class DateTimeFormatUtil {
+
+    private static final int END_OF_DAY_HOUR = 24;
+
+    private DateTimeFormatUtil() {
+        super();
+    }
+
+    /**
+     * Formats the local date and time of the value
+     *
+     * @param date       the value
+     * @param timeFormat the output format
+     * @return the formatted value
+     */
+    public static String format(XMLGregorianCalendar date, TimeFormat timeFormat) {
+        return timeFormat.getFormatter().format(toLocalDateTime(date));
+    }
+
+    /**
+     * @param date the value
+     * @return the local date and time of the value, in its own timezone
+     */
+    public static LocalDateTime toLocalDateTime(XMLGregorianCalendar date) {
+        int hour = fieldOrDefault(date.getHour(), 0);
+        int millisecond = fieldOrDefault(date.getMillisecond(), 0);
+        LocalDateTime localDateTime = LocalDateTime.of(fieldOrDefault(date.getYear(), 1970),
+                fieldOrDefault(date.getMonth(), 1), fieldOrDefault(date.getDay(), 1),
+                hour == END_OF_DAY_HOUR ? 0 : hour, fieldOrDefault(date.getMinute(), 0),
+                fieldOrDefault(date.getSecond(), 0), millisecond * 1_000_000);
+        if (hour == END_OF_DAY_HOUR) {
+            localDateTime = localDateTime.plusDays(1);
+        }
+        // a value without timezone falling in a gap of the default timezone is moved past it, as the calendar does
+        return date.getTimezone() == DatatypeConstants.FIELD_UNDEFINED
+                ? localDateTime.atZone(ZoneId.systemDefault()).toLocalDateTime() : localDateTime;
+    }
+
+    /**
+     * @param date          the value
+     * @param localDateTime the local date and time of the value
+     * @return the offset of the value in seconds, the one of the default timezone when it has none
+     */
+    public static int getOffsetSeconds(XMLGregorianCalendar date, LocalDateTime localDateTime) {
+        int timezone = date.getTimezone();
+        return timezone != DatatypeConstants.FIELD_UNDEFINED ? timezone * 60
+                : ZoneId.systemDefault().getRules().getOffset(localDateTime).getTotalSeconds();
+    }
+
+    /**
+     * @param epochMillis   the instant
+     * @param offsetSeconds the offset to read it in
+     * @return the local date and time of the instant at the offset
+     */
+    public static LocalDateTime toLocalDateTime(long epochMillis, int offsetSeconds) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMillis, 1000L),
+                (int) Math.floorMod(epochMillis, 1000L) * 1_000_000, ZoneOffset.ofTotalSeconds(offsetSeconds));
+    }
+
+    private static int fieldOrDefault(int value, int defaultValue) {
+        return value != DatatypeConstants.FIELD_UNDEFINED ? value : defaultValue;
+    }
+}
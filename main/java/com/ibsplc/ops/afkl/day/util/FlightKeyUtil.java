@@ -0,0 +1,49 @@
+package com.ibsplc.ops.afkl.day.util;
+
+import com.ibsplc.si.event.schema.sofi.Airport;
+import com.ibsplc.si.event.schema.sofi.Departure;
+import com.ibsplc.si.event.schema.sofi.FlightIdentifier;
+import com.ibsplc.si.event.schema.sofi.FlightLeg;
+import com.ibsplc.si.event.schema.sofi.OperationalFlight;
+import com.ibsplc.si.event.schema.sofi.SendOperationalFlightInternalEvent;
+
+import java.util.Optional;
+
+/**
+ * Builds the key identifying the flight a SOFI message is about.
+ */
+public final class FlightKeyUtil {
+
+    private static final char SEPARATOR = '|';
+
+    private FlightKeyUtil() {
+        super();
+    }
+
+    /**
+     * Returns the flight key made of airline code, flight number, scheduled date and departure airport
+     *
+     * @param sendOperationalFlightInternalEvent the event
+     * @return the flight key
+     */
+    public static String getFlightKey(SendOperationalFlightInternalEvent sendOperationalFlightInternalEvent) {
+        Optional<FlightIdentifier> flightIdentifier = Optional.ofNullable(sendOperationalFlightInternalEvent)
+                .map(SendOperationalFlightInternalEvent::getOperationalFlight)
+                .map(OperationalFlight::getFlightIdentifier);
+        String departureAirportCode = Optional.ofNullable(sendOperationalFlightInternalEvent)
+                .map(SendOperationalFlightInternalEvent::getOperationalFlight)
+                .map(OperationalFlight::getFlightleg)
+                .filter(flightLegs -> !flightLegs.isEmpty())
+                .map(flightLegs -> flightLegs.get(0))
+                .map(FlightLeg::getDeparture)
+                .map(Departure::getAirport)
+                .map(Airport::getCode)
+                .orElse(null);
+        return new StringBuilder()
+                .append(flightIdentifier.map(FlightIdentifier::getAirlineCode).orElse(null)).append(SEPARATOR)
+                .append(flightIdentifier.map(FlightIdentifier::getFlightNumber).orElse(null)).append(SEPARATOR)
+                .append(flightIdentifier.map(FlightIdentifier::getScheduledDate).orElse(null)).append(SEPARATOR)
+                .append(departureAirportCode)
+                .toString();
+    }
+}
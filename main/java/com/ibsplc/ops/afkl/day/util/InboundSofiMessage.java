@@ -0,0 +1,38 @@
+package com.ibsplc.ops.afkl.day.util;
+
+import com.ibsplc.si.event.schema.sofi.SendOperationalFlightInternalEvent;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Result of the single pass reading of an inbound SOFI SOAP message.
+ */
+@Getter
+@Setter
+public class InboundSofiMessage {
+
+    /**
+     * Serialised top level elements of the SOAP header
+     */
+    private String header;
+
+    /**
+     * Whether the SOAP body is valid against SOFI.xsd
+     */
+    private boolean valid;
+
+    /**
+     * The bound SOAP body, null if the body is invalid or could not be bound
+     */
+    private SendOperationalFlightInternalEvent sendOperationalFlightInternalEvent;
+
+    /**
+     * Time spent extracting the SOAP envelope, outside of the validation and binding of the body
+     */
+    private long envelopeNanos;
+
+    /**
+     * Time spent in the XSD validation of the body, -1 when it was not measured for this message
+     */
+    private long validationNanos = -1;
+}
@@ -0,0 +1,26 @@
+package com.ibsplc.ops.afkl.day.util;
+
+import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.COLON;
+
+/**
+ * Normalisation of the SOAP header messageID.
+ */
+public final class MessageIdUtil {
+
+    private MessageIdUtil() {
+        super();
+    }
+
+    /**
+     * Removes the prefix up to the first colon and the dashes, e.g. urn:uuid:1234-abcd gives uuid:1234abcd
+     *
+     * @param messageId the messageID of the SOAP header
+     * @return the normalised message id, null if messageId is null
+     */
+    public static String normalizeMessageId(String messageId) {
+        if (messageId == null) {
+            return null;
+        }
+        return messageId.substring(messageId.indexOf(COLON) + 1).replace("-", "").trim();
+    }
+}
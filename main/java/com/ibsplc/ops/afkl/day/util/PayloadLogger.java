@@ -0,0 +1,86 @@
+package com.ibsplc.ops.afkl.day.util;
+
+import com.ibsplc.ops.afkl.day.enums.PayloadLogMode;
+import com.ibsplc.si.framework.util.LoggerUtility;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies the payload logging policy of sofi.logging.payload.mode.
+ *
+ * <p>The payload is passed to the logger as a placeholder argument whose toString sanitises and cuts the payload,
+ * so that nothing is done unless the line is actually written.
+ */
+@ApplicationScoped
+@SuppressWarnings("unused")
+public class PayloadLogger {
+
+    @ConfigProperty(name = "sofi.logging.payload.mode", defaultValue = "FULL")
+    private PayloadLogMode mode;
+
+    @ConfigProperty(name = "sofi.logging.payload.max.length", defaultValue = "2000")
+    private int maxLength;
+
+    @ConfigProperty(name = "sofi.logging.payload.sample.rate", defaultValue = "100")
+    private int sampleRate;
+
+    private final AtomicLong sampleCounter = new AtomicLong();
+
+    /**
+     * @return false if the lines logged for every payload (receipt, publishing) are to be skipped
+     */
+    public boolean isEnabled() {
+        return mode != PayloadLogMode.OFF;
+    }
+
+    /**
+     * Returns the log argument rendering the payload according to the policy
+     *
+     * @param payload the payload
+     * @return the log argument
+     */
+    public Object payload(String payload) {
+        return new LoggedPayload(payload);
+    }
+
+    private String render(String payload) {
+        if (payload == null) {
+            return null;
+        }
+        switch (mode) {
+            case FULL:
+                return LoggerUtility.sanitizeMessage(payload);
+            case TRUNCATED:
+                return payload.length() <= maxLength ? LoggerUtility.sanitizeMessage(payload)
+                        : LoggerUtility.sanitizeMessage(payload.substring(0, maxLength))
+                        + "... [" + payload.length() + " characters]";
+            case SAMPLED:
+                if (sampleCounter.getAndIncrement() % Math.max(1, sampleRate) == 0) {
+                    return LoggerUtility.sanitizeMessage(payload);
+                }
+                return metadata(payload);
+            default:
+                return metadata(payload);
+        }
+    }
+
+    private static String metadata(String payload) {
+        return "[" + payload.length() + " characters]";
+    }
+
+    private final class LoggedPayload {
+
+        private final String payload;
+
+        private LoggedPayload(String payload) {
+            this.payload = payload;
+        }
+
+        @Override
+        public String toString() {
+            return render(payload);
+        }
+    }
+}
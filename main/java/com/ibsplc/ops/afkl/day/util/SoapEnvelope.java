@@ -0,0 +1,16 @@
+package com.ibsplc.ops.afkl.day.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Header and body parts of a SOAP message, each holding the serialised top level child elements.
+ */
+@Getter
+@AllArgsConstructor
+public final class SoapEnvelope {
+
+    private final String header;
+
+    private final String body;
+}
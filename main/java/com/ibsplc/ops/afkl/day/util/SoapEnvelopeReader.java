@@ -0,0 +1,240 @@
+package com.ibsplc.ops.afkl.day.util;
+
+import com.ibsplc.ops.afkl.day.enums.ErrorCodes;
+import com.ibsplc.si.framework.exception.CustomException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.NEW_LINE;
+
+/**
+ * Streaming reader splitting a SOAP message into its header and body parts in a single StAX pass,
+ * without building a DOM of the envelope.
+ *
+ * <p>As with the SAAJ extraction it replaces, a header or body without any child node is rejected with E0003, while
+ * a header or body holding only whitespace or comments gives an empty part.
+ */
+public final class SoapEnvelopeReader {
+
+    private static final String HEADER = "Header";
+    private static final String BODY = "Body";
+    private static final int ENVELOPE_DEPTH = 1;
+    private static final int PART_DEPTH = 2;
+    private static final int CHILD_DEPTH = 3;
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = newXmlInputFactory();
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+    private SoapEnvelopeReader() {
+        super();
+    }
+
+    /**
+     * Reads the SOAP message once and returns the serialised top level elements of its header and body
+     *
+     * @param message the SOAP message
+     * @return the header and body parts
+     * @throws XMLStreamException if the message is not well-formed or has no header or no body
+     * @throws CustomException    E0003 if the header or the body is empty
+     */
+    public static SoapEnvelope read(String message) throws XMLStreamException {
+        StringBuilder body = new StringBuilder();
+        String header = read(message, (reader, inScopeNamespaces) ->
+                body.append(copyElement(reader, inScopeNamespaces)).append(NEW_LINE));
+        return new SoapEnvelope(header, body.toString());
+    }
+
+    /**
+     * Reads the SOAP message once, serialising the top level elements of its header and handing every top level
+     * element of its body to the given handler while the reader is positioned on it
+     *
+     * @param message     the SOAP message
+     * @param bodyHandler consumer of the top level body elements
+     * @return the serialised header part
+     * @throws XMLStreamException if the message is not well-formed or has no header or no body
+     * @throws CustomException    E0003 if the header or the body is empty
+     */
+    public static String read(String message, BodyElementHandler bodyHandler) throws XMLStreamException {
+        StringBuilder header = new StringBuilder();
+        boolean headerFound = false;
+        boolean bodyFound = false;
+        boolean headerEmpty = true;
+        boolean bodyEmpty = true;
+        Deque<Map<String, String>> inScopeNamespaces = new ArrayDeque<>();
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(new StringReader(message));
+        try {
+            int depth = 0;
+            String currentPart = null;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (depth == PART_DEPTH && event != XMLStreamConstants.END_ELEMENT) {
+                    headerEmpty &= !HEADER.equals(currentPart);
+                    bodyEmpty &= !BODY.equals(currentPart);
+                }
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    if (depth == PART_DEPTH) {
+                        currentPart = reader.getLocalName();
+                        headerFound |= HEADER.equals(currentPart);
+                        bodyFound |= BODY.equals(currentPart);
+                    }
+                    if (depth < CHILD_DEPTH) {
+                        inScopeNamespaces.push(readNamespaces(reader));
+                    } else if (depth == CHILD_DEPTH && HEADER.equals(currentPart)) {
+                        header.append(copyElement(reader, inScopeNamespaces)).append(NEW_LINE);
+                        depth--;
+                    } else if (depth == CHILD_DEPTH && BODY.equals(currentPart)) {
+                        bodyHandler.handle(reader, flatten(inScopeNamespaces));
+                        depth--;
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    if (depth < CHILD_DEPTH && depth >= ENVELOPE_DEPTH) {
+                        inScopeNamespaces.pop();
+                    }
+                    if (depth == PART_DEPTH) {
+                        currentPart = null;
+                    }
+                    depth--;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        if (!headerFound || !bodyFound) {
+            throw new XMLStreamException("The SOAP envelope has no " + (headerFound ? BODY : HEADER));
+        }
+        if (headerEmpty || bodyEmpty) {
+            throw new CustomException(null, ErrorCodes.E0003.name(), ErrorCodes.E0003.getDescription(),
+                    new Exception(ErrorCodes.E0003.getDescription()));
+        }
+        return header.toString();
+    }
+
+    /**
+     * Serialises the element the reader is positioned on, leaving the reader on its end tag.
+     * Namespaces declared on the envelope ancestors are redeclared on the copied element.
+     */
+    private static String copyElement(XMLStreamReader reader, Deque<Map<String, String>> inScopeNamespaces)
+            throws XMLStreamException {
+        return copyElement(reader, flatten(inScopeNamespaces));
+    }
+
+    private static String copyElement(XMLStreamReader reader, Map<String, String> ancestorNamespaces)
+            throws XMLStreamException {
+        StringWriter stringWriter = new StringWriter();
+        XMLStreamWriter writer = XML_OUTPUT_FACTORY.createXMLStreamWriter(stringWriter);
+        try {
+            int depth = 0;
+            do {
+                switch (reader.getEventType()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        writeStartElement(reader, writer, depth == 0 ? ancestorNamespaces : Map.of());
+                        depth++;
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        writer.writeEndElement();
+                        depth--;
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.SPACE:
+                        writer.writeCharacters(reader.getTextCharacters(), reader.getTextStart(),
+                                reader.getTextLength());
+                        break;
+                    case XMLStreamConstants.CDATA:
+                        writer.writeCData(reader.getText());
+                        break;
+                    case XMLStreamConstants.COMMENT:
+                        writer.writeComment(reader.getText());
+                        break;
+                    default:
+                        break;
+                }
+                if (depth > 0) {
+                    reader.next();
+                }
+            } while (depth > 0);
+            writer.flush();
+        } finally {
+            writer.close();
+        }
+        return stringWriter.toString();
+    }
+
+    private static void writeStartElement(XMLStreamReader reader, XMLStreamWriter writer,
+                                          Map<String, String> ancestorNamespaces) throws XMLStreamException {
+        String prefix = reader.getPrefix() == null ? "" : reader.getPrefix();
+        String namespaceUri = reader.getNamespaceURI() == null ? "" : reader.getNamespaceURI();
+        writer.writeStartElement(prefix, reader.getLocalName(), namespaceUri);
+        Map<String, String> namespaces = new LinkedHashMap<>(ancestorNamespaces);
+        namespaces.putAll(readNamespaces(reader));
+        for (Map.Entry<String, String> namespace : namespaces.entrySet()) {
+            if (namespace.getKey().isEmpty()) {
+                writer.writeDefaultNamespace(namespace.getValue());
+            } else {
+                writer.writeNamespace(namespace.getKey(), namespace.getValue());
+            }
+        }
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String attributePrefix = reader.getAttributePrefix(i);
+            String attributeNamespace = reader.getAttributeNamespace(i);
+            if (attributeNamespace == null || attributeNamespace.isEmpty()) {
+                writer.writeAttribute(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+            } else {
+                writer.writeAttribute(attributePrefix == null ? "" : attributePrefix, attributeNamespace,
+                        reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+            }
+        }
+    }
+
+    /**
+     * Merges the namespaces declared on the ancestors, the innermost declaration winning
+     */
+    private static Map<String, String> flatten(Deque<Map<String, String>> inScopeNamespaces) {
+        Map<String, String> namespaces = new LinkedHashMap<>();
+        inScopeNamespaces.descendingIterator().forEachRemaining(namespaces::putAll);
+        return namespaces;
+    }
+
+    private static Map<String, String> readNamespaces(XMLStreamReader reader) {
+        Map<String, String> namespaces = new LinkedHashMap<>();
+        for (int i = 0; i < reader.getNamespaceCount(); i++) {
+            String prefix = reader.getNamespacePrefix(i);
+            namespaces.put(prefix == null ? "" : prefix, reader.getNamespaceURI(i));
+        }
+        return namespaces;
+    }
+
+    private static XMLInputFactory newXmlInputFactory() {
+        XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        return xmlInputFactory;
+    }
+
+    /**
+     * Consumer of a top level body element. The reader is positioned on the start tag of the element and must be
+     * left on its end tag.
+     */
+    @FunctionalInterface
+    public interface BodyElementHandler {
+
+        /**
+         * @param reader            the reader positioned on the start tag of the body element
+         * @param inScopeNamespaces the namespaces declared on the envelope and body, by prefix
+         * @throws XMLStreamException if the element cannot be read
+         */
+        void handle(XMLStreamReader reader, Map<String, String> inScopeNamespaces) throws XMLStreamException;
+    }
+}
@@ -0,0 +1,42 @@
+package com.ibsplc.ops.afkl.day.util;
+
+import com.ibsplc.ops.afkl.day.enums.TimeFormat;
+
+/**
+ * Formatted values of one message, so that an instant repeated in several fields of the message (scheduled and
+ * estimated times are often equal) is formatted once per format. It lives as long as the message and is not thread
+ * safe.
+ */
+public final class TimeFormatMemo {
+
+    private static final int CAPACITY = 16;
+
+    private final long[] epochMillis = new long[CAPACITY];
+    private final int[] offsetSeconds = new int[CAPACITY];
+    private final TimeFormat[] timeFormats = new TimeFormat[CAPACITY];
+    private final String[] values = new String[CAPACITY];
+    private int size;
+
+    /**
+     * @param millis     the instant
+     * @param offset     the offset in seconds the instant is read in
+     * @param timeFormat the output format
+     * @return the formatted local date and time of the instant at the offset
+     */
+    public String format(long millis, int offset, TimeFormat timeFormat) {
+        for (int i = 0; i < size; i++) {
+            if (epochMillis[i] == millis && offsetSeconds[i] == offset && timeFormats[i] == timeFormat) {
+                return values[i];
+            }
+        }
+        String value = timeFormat.getFormatter().format(DateTimeFormatUtil.toLocalDateTime(millis, offset));
+        if (size < CAPACITY) {
+            epochMillis[size] = millis;
+            offsetSeconds[size] = offset;
+            timeFormats[size] = timeFormat;
+            values[size] = value;
+            size++;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,27 @@
+package com.ibsplc.ops.afkl.day.util;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Result of the marshalling of an outbound message validated against its xsd as it is written.
+ */
+@Getter
+@Setter
+public class ValidatedXml {
+
+    /**
+     * The marshalled message, complete even when it is invalid
+     */
+    private String xml;
+
+    /**
+     * Whether the message is valid against the xsd
+     */
+    private boolean valid;
+
+    /**
+     * The first validation error, null if the message is valid
+     */
+    private String validationError;
+}
@@ -0,0 +1,241 @@
+package com.ibsplc.ops.afkl.day.util;
+
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.helpers.AttributesImpl;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+import javax.xml.validation.ValidatorHandler;
+import java.util.Map;
+
+/**
+ * Reader exposing a single element of an underlying StAX reader as a standalone document, and pushing every event
+ * pulled by its consumer into a {@link ValidatorHandler}. This way a binder (e.g. Jackson) and the XSD validation
+ * share the same tokenisation of the input.
+ *
+ * <p>The reader must be positioned on the start tag of the element when {@link #start(Map)} is called. Validation
+ * errors are collected instead of being thrown so that they never interrupt the binding; the first one is
+ * available through {@link #getValidationError()} once {@link #finish()} has been called.
+ */
+public class ValidatingXmlStreamReader extends StreamReaderDelegate implements ErrorHandler {
+
+    private static final String CDATA = "CDATA";
+
+    private final ValidatorHandler validatorHandler;
+    private final AttributesImpl attributes = new AttributesImpl();
+    private int depth;
+    private boolean ended;
+    private SAXException validationError;
+    private boolean timed;
+    private long validationNanos;
+
+    public ValidatingXmlStreamReader(XMLStreamReader reader, ValidatorHandler validatorHandler) {
+        super(reader);
+        this.validatorHandler = validatorHandler;
+        this.validatorHandler.setErrorHandler(this);
+    }
+
+    /**
+     * Starts the validation with the element the reader is positioned on
+     *
+     * @param inScopeNamespaces namespaces declared on the ancestors of the element, by prefix
+     * @throws XMLStreamException if the validator rejects the event
+     */
+    public void start(Map<String, String> inScopeNamespaces) throws XMLStreamException {
+        try {
+            validatorHandler.startDocument();
+            for (Map.Entry<String, String> namespace : inScopeNamespaces.entrySet()) {
+                validatorHandler.startPrefixMapping(namespace.getKey(), namespace.getValue());
+            }
+        } catch (SAXException saxException) {
+            recordError(saxException);
+        }
+        forward(getEventType());
+    }
+
+    /**
+     * Consumes whatever the binder left of the element and ends the validation. The underlying reader is left on
+     * the end tag of the element.
+     *
+     * @return true if the element is valid against the schema
+     * @throws XMLStreamException if the element is not well-formed
+     */
+    public boolean finish() throws XMLStreamException {
+        while (depth > 0 && hasNext()) {
+            next();
+        }
+        try {
+            validatorHandler.endDocument();
+        } catch (SAXException saxException) {
+            recordError(saxException);
+        }
+        return validationError == null;
+    }
+
+    /**
+     * @return the first validation error, null if the element is valid so far
+     */
+    public SAXException getValidationError() {
+        return validationError;
+    }
+
+    /**
+     * Measures the time spent in the validator, at the cost of two clock reads per parse event
+     *
+     * @param timed true to measure
+     */
+    public void setTimed(boolean timed) {
+        this.timed = timed;
+    }
+
+    /**
+     * @return the time spent in the validator while timed
+     */
+    public long getValidationNanos() {
+        return validationNanos;
+    }
+
+    @Override
+    public int next() throws XMLStreamException {
+        if (depth == 0) {
+            ended = true;
+            return XMLStreamConstants.END_DOCUMENT;
+        }
+        int event = super.next();
+        forward(event);
+        return event;
+    }
+
+    @Override
+    public int getEventType() {
+        return ended ? XMLStreamConstants.END_DOCUMENT : super.getEventType();
+    }
+
+    @Override
+    public boolean hasNext() throws XMLStreamException {
+        return depth > 0 && super.hasNext();
+    }
+
+    @Override
+    public int nextTag() throws XMLStreamException {
+        int event = next();
+        while ((event == XMLStreamConstants.CHARACTERS && isWhiteSpace())
+                || (event == XMLStreamConstants.CDATA && isWhiteSpace())
+                || event == XMLStreamConstants.SPACE
+                || event == XMLStreamConstants.PROCESSING_INSTRUCTION
+                || event == XMLStreamConstants.COMMENT) {
+            event = next();
+        }
+        if (event != XMLStreamConstants.START_ELEMENT && event != XMLStreamConstants.END_ELEMENT) {
+            throw new XMLStreamException("Expected start or end tag", getLocation());
+        }
+        return event;
+    }
+
+    @Override
+    public String getElementText() throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        int event = next();
+        while (event != XMLStreamConstants.END_ELEMENT) {
+            if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+                    || event == XMLStreamConstants.SPACE || event == XMLStreamConstants.ENTITY_REFERENCE) {
+                text.append(getText());
+            } else if (event == XMLStreamConstants.START_ELEMENT || event == XMLStreamConstants.END_DOCUMENT) {
+                throw new XMLStreamException("Unexpected event while reading element text", getLocation());
+            }
+            event = next();
+        }
+        return text.toString();
+    }
+
+    @Override
+    public void close() {
+        // the underlying reader belongs to the caller
+    }
+
+    @Override
+    public void warning(SAXParseException exception) {
+        // warnings do not invalidate the document
+    }
+
+    @Override
+    public void error(SAXParseException exception) {
+        recordError(exception);
+    }
+
+    @Override
+    public void fatalError(SAXParseException exception) {
+        recordError(exception);
+    }
+
+    private void forward(int event) throws XMLStreamException {
+        if (!timed) {
+            validate(event);
+            return;
+        }
+        long validationStart = System.nanoTime();
+        validate(event);
+        validationNanos += System.nanoTime() - validationStart;
+    }
+
+    private void validate(int event) throws XMLStreamException {
+        try {
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT:
+                    depth++;
+                    for (int i = 0; i < getNamespaceCount(); i++) {
+                        validatorHandler.startPrefixMapping(nullToEmpty(getNamespacePrefix(i)), getNamespaceURI(i));
+                    }
+                    validatorHandler.startElement(nullToEmpty(getNamespaceURI()), getLocalName(),
+                            qualifiedName(getPrefix(), getLocalName()), readAttributes());
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    depth--;
+                    validatorHandler.endElement(nullToEmpty(getNamespaceURI()), getLocalName(),
+                            qualifiedName(getPrefix(), getLocalName()));
+                    for (int i = 0; i < getNamespaceCount(); i++) {
+                        validatorHandler.endPrefixMapping(nullToEmpty(getNamespacePrefix(i)));
+                    }
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                    validatorHandler.characters(getTextCharacters(), getTextStart(), getTextLength());
+                    break;
+                case XMLStreamConstants.SPACE:
+                    validatorHandler.ignorableWhitespace(getTextCharacters(), getTextStart(), getTextLength());
+                    break;
+                default:
+                    break;
+            }
+        } catch (SAXException saxException) {
+            recordError(saxException);
+        }
+    }
+
+    private AttributesImpl readAttributes() {
+        attributes.clear();
+        for (int i = 0; i < getAttributeCount(); i++) {
+            attributes.addAttribute(nullToEmpty(getAttributeNamespace(i)), getAttributeLocalName(i),
+                    qualifiedName(getAttributePrefix(i), getAttributeLocalName(i)), CDATA, getAttributeValue(i));
+        }
+        return attributes;
+    }
+
+    private void recordError(SAXException saxException) {
+        if (validationError == null) {
+            validationError = saxException;
+        }
+    }
+
+    private static String qualifiedName(String prefix, String localName) {
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ':' + localName;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
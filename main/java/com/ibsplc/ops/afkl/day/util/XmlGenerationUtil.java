@@ -1,16 +1,66 @@
 package com.ibsplc.ops.afkl.day.util;
 
+import com.ibsplc.si.event.schema.cdm.CDMFlightInfoType;
+import com.ibsplc.si.event.schema.flightleg.notification.IATAAIDXFlightLegNotifRQ;
+import lombok.extern.slf4j.Slf4j;
+
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
+import javax.xml.bind.MarshalException;
 import javax.xml.bind.Marshaller;
+import javax.xml.bind.ValidationEvent;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.OUTPUT_BUFFER_MAX_RETAINED_SIZE;
+import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.OUTPUT_BUFFER_SIZE;
 
+@Slf4j
 public final class XmlGenerationUtil {
 
+    /**
+     * JAXB contexts are thread-safe and expensive to build, they are created once per output type.
+     */
+    private static final Map<Class<?>, JAXBContext> JAXB_CONTEXTS = new ConcurrentHashMap<>(Map.of(
+            IATAAIDXFlightLegNotifRQ.class, newContext(IATAAIDXFlightLegNotifRQ.class),
+            CDMFlightInfoType.class, newContext(CDMFlightInfoType.class)
+    ));
+
+    /**
+     * Marshallers are not thread-safe, each thread keeps its own instance per output type.
+     */
+    private static final ThreadLocal<Map<Class<?>, Marshaller>> MARSHALLERS =
+            ThreadLocal.withInitial(HashMap::new);
+
+    /**
+     * Marshallers validating against an xsd, per thread and per xsd.
+     */
+    private static final ThreadLocal<Map<String, Marshaller>> VALIDATING_MARSHALLERS =
+            ThreadLocal.withInitial(HashMap::new);
+
+    /**
+     * Output buffer reused by the validating marshalling of each thread.
+     */
+    private static final ThreadLocal<ByteArrayOutputStream> OUTPUT_BUFFERS =
+            ThreadLocal.withInitial(() -> new ByteArrayOutputStream(OUTPUT_BUFFER_SIZE));
+
     private XmlGenerationUtil() {
         super();
     }
 
+    /**
+     * Forces the creation of the JAXB contexts of all the output types, used to move the cost to application startup.
+     */
+    public static void initialize() {
+        log.info(" JAXB contexts initialised for: {}", JAXB_CONTEXTS.keySet());
+    }
+
     /**
      * This method is used to generate the xml from the object received
      *
@@ -21,12 +71,116 @@ public final class XmlGenerationUtil {
      * @throws JAXBException
      */
     public static <T> String generateXmlFromObj(Object targetObj, Class<T> targetClass) throws JAXBException {
-        JAXBContext jaxbContext = JAXBContext.newInstance(targetClass);
-        Marshaller marshaller = jaxbContext.createMarshaller();
-        marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
         StringWriter writer = new StringWriter();
-        marshaller.marshal(targetObj, writer);
+        generateXmlFromObj(targetObj, targetClass, writer);
         return writer.toString();
     }
 
+    /**
+     * This method is used to generate the xml from the object received directly into the given writer
+     *
+     * @param targetObj   object to convert into xml
+     * @param targetClass targetObj type
+     * @param writer      destination of the xml
+     * @throws JAXBException
+     */
+    public static <T> void generateXmlFromObj(Object targetObj, Class<T> targetClass, Writer writer)
+            throws JAXBException {
+        getMarshaller(targetClass).marshal(targetObj, writer);
+    }
+
+    /**
+     * This method is used to generate the xml from the object received directly into the given output stream (UTF-8)
+     *
+     * @param targetObj    object to convert into xml
+     * @param targetClass  targetObj type
+     * @param outputStream destination of the xml
+     * @throws JAXBException
+     */
+    public static <T> void generateXmlFromObj(Object targetObj, Class<T> targetClass, OutputStream outputStream)
+            throws JAXBException {
+        getMarshaller(targetClass).marshal(targetObj, outputStream);
+    }
+
+    /**
+     * This method is used to generate the xml from the object received while validating it against the xsd, in a
+     * single pass. Validation errors do not stop the marshalling, so that the whole document is returned with them.
+     *
+     * @param targetObj   object to convert into xml
+     * @param targetClass targetObj type
+     * @param xsd         the xsd file name on the classpath
+     * @return the xml and the outcome of its validation
+     * @throws JAXBException if the object cannot be marshalled
+     */
+    public static <T> ValidatedXml generateValidatedXmlFromObj(Object targetObj, Class<T> targetClass, String xsd)
+            throws JAXBException {
+        Marshaller marshaller = getValidatingMarshaller(targetClass, xsd);
+        ValidatedXml validatedXml = new ValidatedXml();
+        marshaller.setEventHandler(event -> {
+            if (event.getSeverity() != ValidationEvent.WARNING && validatedXml.getValidationError() == null) {
+                validatedXml.setValidationError(event.getMessage());
+            }
+            return true;
+        });
+        ByteArrayOutputStream buffer = OUTPUT_BUFFERS.get();
+        buffer.reset();
+        try {
+            marshaller.marshal(targetObj, buffer);
+        } catch (MarshalException exception) {
+            if (validatedXml.getValidationError() == null) {
+                throw exception;
+            }
+        } finally {
+            if (buffer.size() > OUTPUT_BUFFER_MAX_RETAINED_SIZE) {
+                OUTPUT_BUFFERS.remove();
+            }
+        }
+        // the UTF-8 output of the marshaller is faster than its Writer output, the decoding copy is kept because the
+        // SQS message body is a String
+        validatedXml.setXml(buffer.toString(StandardCharsets.UTF_8));
+        validatedXml.setValid(validatedXml.getValidationError() == null);
+        return validatedXml;
+    }
+
+    private static Marshaller getValidatingMarshaller(Class<?> targetClass, String xsd) throws JAXBException {
+        Map<String, Marshaller> marshallers = VALIDATING_MARSHALLERS.get();
+        Marshaller marshaller = marshallers.get(xsd);
+        if (marshaller == null) {
+            marshaller = getContext(targetClass).createMarshaller();
+            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+            marshaller.setSchema(XsdSchemaRegistry.getSchema(xsd));
+            marshallers.put(xsd, marshaller);
+        }
+        return marshaller;
+    }
+
+    private static Marshaller getMarshaller(Class<?> targetClass) throws JAXBException {
+        Map<Class<?>, Marshaller> marshallers = MARSHALLERS.get();
+        Marshaller marshaller = marshallers.get(targetClass);
+        if (marshaller == null) {
+            marshaller = getContext(targetClass).createMarshaller();
+            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+            marshallers.put(targetClass, marshaller);
+        }
+        return marshaller;
+    }
+
+    private static JAXBContext getContext(Class<?> targetClass) throws JAXBException {
+        JAXBContext jaxbContext = JAXB_CONTEXTS.get(targetClass);
+        if (jaxbContext == null) {
+            log.warn(" JAXB context for {} is not precomputed, creating it on demand", targetClass.getName());
+            jaxbContext = JAXBContext.newInstance(targetClass);
+            JAXB_CONTEXTS.putIfAbsent(targetClass, jaxbContext);
+        }
+        return jaxbContext;
+    }
+
+    private static JAXBContext newContext(Class<?> targetClass) {
+        try {
+            return JAXBContext.newInstance(targetClass);
+        } catch (JAXBException exception) {
+            throw new IllegalStateException("Unable to create JAXB context for " + targetClass.getName(), exception);
+        }
+    }
+
 }
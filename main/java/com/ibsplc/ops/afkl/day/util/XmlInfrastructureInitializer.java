@@ -0,0 +1,22 @@
+package com.ibsplc.ops.afkl.day.util;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Initialises the XML infrastructure (compiled schemas, JAXB contexts, Jackson readers) at application startup
+ * so that the first message does not pay for it.
+ */
+@Slf4j
+@ApplicationScoped
+@SuppressWarnings("unused")
+public class XmlInfrastructureInitializer {
+
+    void onStart(@Observes StartupEvent startupEvent) {
+        XsdSchemaRegistry.initialize();
+        XmlGenerationUtil.initialize();
+        XmlParserUtil.initialize();
+    }
+}
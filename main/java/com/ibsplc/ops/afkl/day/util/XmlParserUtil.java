@@ -2,30 +2,24 @@ package com.ibsplc.ops.afkl.day.util;
 
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.dataformat.xml.JacksonXmlModule;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.fasterxml.jackson.module.jakarta.xmlbind.JakartaXmlBindAnnotationModule;
-import com.ibsplc.ops.afkl.day.enums.ErrorCodes;
+import com.ibsplc.si.event.schema.sofi.SendOperationalFlightInternalEvent;
 import com.ibsplc.si.event.schema.sofi.SoapHeader;
-import com.ibsplc.si.framework.exception.CustomException;
 import jakarta.enterprise.context.ApplicationScoped;
 import lombok.extern.slf4j.Slf4j;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-
-import javax.xml.soap.MessageFactory;
-import javax.xml.soap.SOAPMessage;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-import java.io.ByteArrayInputStream;
-import java.io.StringWriter;
-import java.nio.charset.StandardCharsets;
-
-import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.NEW_LINE;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.validation.Schema;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.INPUT_VALIDATION_TIMING_SAMPLE_RATE;
+import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.SOFI_XSD;
 import static org.apache.commons.lang3.exception.ExceptionUtils.getStackTrace;
 
 /**
@@ -36,6 +30,24 @@ import static org.apache.commons.lang3.exception.ExceptionUtils.getStackTrace;
 @SuppressWarnings("deprecation")
 public final class XmlParserUtil {
 
+    /**
+     * Case-insensitive mapper ignoring unknown properties. The messages carry elements the model does not have, such
+     * as wsa:Action in the header, and names whose case differs from the model, such as wsa:MessageID for messageID.
+     */
+    private static final XmlMapper XML_MAPPER = newXmlMapper();
+
+    /**
+     * Readers are immutable and thread-safe, they are built once per type and shared.
+     */
+    private static final Map<Class<?>, ObjectReader> READERS = new ConcurrentHashMap<>();
+    private static final AtomicLong VALIDATION_TIMING_COUNTER = new AtomicLong();
+
+    static {
+        READERS.put(SendOperationalFlightInternalEvent.class,
+                XML_MAPPER.readerFor(SendOperationalFlightInternalEvent.class));
+        READERS.put(SoapHeader.class, XML_MAPPER.readerFor(SoapHeader.class));
+    }
+
     private XmlParserUtil() {
         super();
     }
@@ -50,13 +62,7 @@ public final class XmlParserUtil {
 
         T result = null;
         try {
-            JacksonXmlModule module = new JacksonXmlModule();
-            module.setDefaultUseWrapper(false);
-            XmlMapper xmlMapper = new XmlMapper(module);
-            xmlMapper.configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true);
-            xmlMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-            xmlMapper.registerModule(new JakartaXmlBindAnnotationModule());
-            result = xmlMapper.readValue(message, sourceClass);
+            result = readValue(sourceClass, message);
         } catch (Exception exception) {
             log.error(" Error while convertXMLToObject: {} ", getStackTrace(exception));
         }
@@ -73,19 +79,121 @@ public final class XmlParserUtil {
         SoapHeader soapHeader = null;
         try {
             headerXml = "<SoapHeader>\n" + headerXml + "</SoapHeader>";
-            JacksonXmlModule module = new JacksonXmlModule();
-            module.setDefaultUseWrapper(false);
-            XmlMapper xmlMapper = new XmlMapper(module);
-            xmlMapper.configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true);
-            xmlMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-            xmlMapper.registerModule(new JakartaXmlBindAnnotationModule());
-            soapHeader = xmlMapper.readValue(headerXml, SoapHeader.class);
+            soapHeader = readValue(SoapHeader.class, headerXml);
         } catch (Exception exception) {
             log.error(" Error while parsing SoapHeader: {} ", getStackTrace(exception));
         }
         return soapHeader;
     }
 
+    /**
+     * Binds the xml with the shared reader of the type
+     *
+     * @param sourceClass target type
+     * @param xml         the xml
+     * @return the bound object
+     * @throws IOException if the xml cannot be bound
+     */
+    private static <T> T readValue(Class<T> sourceClass, String xml) throws IOException {
+        return READERS.computeIfAbsent(sourceClass, XML_MAPPER::readerFor).readValue(xml);
+    }
+
+    /**
+     * Forces the creation of the readers of the known types, used to move the cost to application startup.
+     */
+    public static void initialize() {
+        log.info(" Jackson XML readers initialised for: {}", READERS.keySet());
+    }
+
+    private static XmlMapper newXmlMapper() {
+        JacksonXmlModule module = new JacksonXmlModule();
+        module.setDefaultUseWrapper(false);
+        XmlMapper xmlMapper = new XmlMapper(module);
+        xmlMapper.configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true);
+        xmlMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        xmlMapper.registerModule(new JakartaXmlBindAnnotationModule());
+        return xmlMapper;
+    }
+
+    /**
+     * Reads an inbound SOFI SOAP message in a single pass: the SOAP body is validated against SOFI.xsd and bound to
+     * SendOperationalFlightInternalEvent from the same stream of parse events, so every inbound character is tokenised
+     * once. A valid body that cannot be bound gives no event, as the binding of the body alone would.
+     *
+     * <p>The time spent outside of the body is reported as the envelope extraction time. The time spent in the
+     * validator is interleaved with the binding, it is only measured for one message out of
+     * INPUT_VALIDATION_TIMING_SAMPLE_RATE to keep the clock reads off most messages.
+     *
+     * @param message the SOAP message
+     * @return the header, the validation outcome and the bound event
+     * @throws XMLStreamException if the message is not well-formed
+     */
+    public InboundSofiMessage parseInboundSofiMessage(String message) throws XMLStreamException {
+        InboundSofiMessage inboundSofiMessage = new InboundSofiMessage();
+        Schema schema = XsdSchemaRegistry.getSchema(SOFI_XSD);
+        boolean[] bodyElementRead = {false};
+        Exception[] bindingException = {null};
+        long[] bodyNanos = {0};
+        boolean timed = VALIDATION_TIMING_COUNTER.getAndIncrement() % INPUT_VALIDATION_TIMING_SAMPLE_RATE == 0;
+        inboundSofiMessage.setValid(true);
+        long readStart = System.nanoTime();
+        String header = SoapEnvelopeReader.read(message, (reader, inScopeNamespaces) -> {
+            long bodyStart = System.nanoTime();
+            ValidatingXmlStreamReader validatingReader =
+                    new ValidatingXmlStreamReader(reader, schema.newValidatorHandler());
+            validatingReader.setTimed(timed);
+            try {
+                validatingReader.start(inScopeNamespaces);
+                if (bodyElementRead[0]) {
+                    log.error(" An exception occurred during XSD validation: more than one element in the SOAP body");
+                    inboundSofiMessage.setValid(false);
+                    inboundSofiMessage.setSendOperationalFlightInternalEvent(null);
+                    validatingReader.finish();
+                    return;
+                }
+                bodyElementRead[0] = true;
+                try {
+                    inboundSofiMessage.setSendOperationalFlightInternalEvent(
+                            READERS.get(SendOperationalFlightInternalEvent.class).readValue(
+                                    XML_MAPPER.getFactory().createParser(validatingReader)));
+                } catch (Exception exception) {
+                    bindingException[0] = exception;
+                }
+                if (!validatingReader.finish()) {
+                    log.error(" An exception occurred during XSD validation", validatingReader.getValidationError());
+                    inboundSofiMessage.setValid(false);
+                    inboundSofiMessage.setSendOperationalFlightInternalEvent(null);
+                }
+            } finally {
+                bodyNanos[0] += System.nanoTime() - bodyStart;
+                if (timed) {
+                    inboundSofiMessage.setValidationNanos(Math.max(0, inboundSofiMessage.getValidationNanos())
+                            + validatingReader.getValidationNanos());
+                }
+            }
+        });
+        inboundSofiMessage.setEnvelopeNanos(System.nanoTime() - readStart - bodyNanos[0]);
+        inboundSofiMessage.setHeader(header);
+        if (!bodyElementRead[0]) {
+            log.error(" An exception occurred during XSD validation: no element in the SOAP body");
+            inboundSofiMessage.setValid(false);
+        } else if (inboundSofiMessage.isValid() && bindingException[0] != null) {
+            log.error(" Error while convertXMLToObject: {} ", getStackTrace(bindingException[0]));
+        }
+        return inboundSofiMessage;
+    }
+
+    /**
+     * This method is used to extract the soapHeader & soapBody in a single streaming pass
+     *
+     * @param message the SOAP message
+     * @return the soapHeader & soapBody parts
+     * @throws XMLStreamException if the message is not well-formed
+     */
+    public SoapEnvelope extractSoapEnvelope(String message) throws XMLStreamException {
+        return SoapEnvelopeReader.read(message);
+    }
+
     /**
      * This method is used to extract the soapHeader & soapBody
      *
@@ -95,38 +203,8 @@ public final class XmlParserUtil {
      * @throws Exception
      */
     public String extractXmlPartsFromSoapMessage(String message, boolean toExtractBody) throws Exception {
-        SOAPMessage soapMessage = MessageFactory.newInstance().createMessage(
-                null, new ByteArrayInputStream(message.getBytes(StandardCharsets.UTF_8))
-        );
-        NodeList nodes;
-        if (toExtractBody) {
-            nodes = soapMessage.getSOAPBody().getChildNodes();
-        } else {
-            nodes = soapMessage.getSOAPHeader().getChildNodes();
-        }
-        if (nodes.getLength() > 0) {
-            StringBuilder extractedContent = new StringBuilder();
-            for (int i = 0; i < nodes.getLength(); i++) {
-                Node child = nodes.item(i);
-                if (child.getNodeType() == Node.ELEMENT_NODE) {
-                    extractedContent.append(nodeToString(child)).append(NEW_LINE);
-                }
-            }
-            return extractedContent.toString();
-        }
-        throw new CustomException(null, ErrorCodes.E0003.name(), ErrorCodes.E0003.getDescription(),
-                new Exception(ErrorCodes.E0003.getDescription()));
-    }
-
-    private static String nodeToString(Node node) throws TransformerException {
-        TransformerFactory transformerFactory = TransformerFactory.newInstance();
-        Transformer transformer = transformerFactory.newTransformer();
-        transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
-        DOMSource source = new DOMSource(node);
-        StringWriter writer = new StringWriter();
-        StreamResult result = new StreamResult(writer);
-        transformer.transform(source, result);
-        return writer.toString();
+        SoapEnvelope soapEnvelope = extractSoapEnvelope(message);
+        return toExtractBody ? soapEnvelope.getBody() : soapEnvelope.getHeader();
     }
 
 }
@@ -0,0 +1,130 @@
+package com.ibsplc.ops.afkl.day.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.ibsplc.ops.afkl.day.constants.CDMByKLConstants.CDM_FLIGHT_INFO_XSD;
+import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.IATA_AIDX_FLIGHTLEGNOTIFRQ_OUTPUT_XSD;
+import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.SOFI_XSD;
+import static com.ibsplc.ops.afkl.day.constants.SOFIByAFKLConstants.VALIDATOR_POOL_SIZE;
+
+/**
+ * Registry of the compiled XSD schemas used by the service.
+ *
+ * <p>Every known XSD is compiled exactly once into an immutable {@link Schema} when this class is initialised.
+ * {@link Validator} instances are not thread-safe, so they are handed out from a bounded pool per schema and
+ * must be given back through {@link #release(String, Validator)} once the validation is finished.
+ */
+@Slf4j
+public final class XsdSchemaRegistry {
+
+    private static final Map<String, Schema> SCHEMAS = Map.of(
+            SOFI_XSD, compile(SOFI_XSD),
+            IATA_AIDX_FLIGHTLEGNOTIFRQ_OUTPUT_XSD, compile(IATA_AIDX_FLIGHTLEGNOTIFRQ_OUTPUT_XSD),
+            CDM_FLIGHT_INFO_XSD, compile(CDM_FLIGHT_INFO_XSD)
+    );
+
+    private static final Map<String, BlockingQueue<Validator>> VALIDATOR_POOLS = Map.of(
+            SOFI_XSD, new ArrayBlockingQueue<>(VALIDATOR_POOL_SIZE),
+            IATA_AIDX_FLIGHTLEGNOTIFRQ_OUTPUT_XSD, new ArrayBlockingQueue<>(VALIDATOR_POOL_SIZE),
+            CDM_FLIGHT_INFO_XSD, new ArrayBlockingQueue<>(VALIDATOR_POOL_SIZE)
+    );
+
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+
+    private XsdSchemaRegistry() {
+        super();
+    }
+
+    /**
+     * Forces the compilation of all the known schemas, used to move the cost to application startup.
+     */
+    public static void initialize() {
+        log.info(" XSD schema registry initialised with schemas: {}", SCHEMAS.keySet());
+    }
+
+    /**
+     * Returns the compiled schema for the given xsd.
+     * An unknown xsd is compiled on the fly and counted as a miss.
+     *
+     * @param xsd the xsd file name on the classpath
+     * @return the compiled schema
+     */
+    public static Schema getSchema(String xsd) {
+        Schema schema = SCHEMAS.get(xsd);
+        if (schema != null) {
+            HITS.increment();
+            return schema;
+        }
+        MISSES.increment();
+        log.warn(" XSD {} is not registered, compiling it on demand", xsd);
+        return compile(xsd);
+    }
+
+    /**
+     * Borrows a validator for the given xsd, creating a new one from the compiled schema if the pool is empty.
+     *
+     * @param xsd the xsd file name on the classpath
+     * @return a validator ready to be used by the calling thread
+     */
+    public static Validator acquire(String xsd) {
+        BlockingQueue<Validator> pool = VALIDATOR_POOLS.get(xsd);
+        Validator validator = pool != null ? pool.poll() : null;
+        if (validator != null) {
+            HITS.increment();
+            return validator;
+        }
+        return getSchema(xsd).newValidator();
+    }
+
+    /**
+     * Gives a validator back to the pool of the given xsd. Validators exceeding the pool capacity are dropped.
+     *
+     * @param xsd       the xsd file name on the classpath
+     * @param validator the validator borrowed through {@link #acquire(String)}
+     */
+    public static void release(String xsd, Validator validator) {
+        BlockingQueue<Validator> pool = VALIDATOR_POOLS.get(xsd);
+        if (pool != null && validator != null) {
+            validator.reset();
+            pool.offer(validator);
+        }
+    }
+
+    /**
+     * @return number of lookups served from the registry without compiling a schema
+     */
+    public static long getHitCount() {
+        return HITS.sum();
+    }
+
+    /**
+     * @return number of lookups which had to fall back to a per-call schema compilation
+     */
+    public static long getMissCount() {
+        return MISSES.sum();
+    }
+
+    private static Schema compile(String xsd) {
+        URL xsdUrl = XsdSchemaRegistry.class.getClassLoader().getResource(xsd);
+        if (xsdUrl == null) {
+            throw new IllegalStateException("XSD not found on the classpath: " + xsd);
+        }
+        try {
+            return SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI).newSchema(xsdUrl);
+        } catch (SAXException exception) {
+            throw new IllegalStateException("Unable to compile XSD: " + xsd, exception);
+        }
+    }
+}